@@ -0,0 +1,36 @@
+package com.example.loadgenerator.Controller;
+
+import com.example.loadgenerator.Service.LoadStats;
+import com.example.mainservice.DTO.RecommendationEntry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Atrapa SafeLogin – przyjmuje werdykty MainService i mierzy czas do werdyktu
+@RestController
+@RequestMapping("/recommendations")
+public class StubRecommendationController {
+
+    private final LoadStats stats;
+
+    public StubRecommendationController(LoadStats stats) {
+        this.stats = stats;
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Integer> addRecommendations(
+            @RequestBody List<RecommendationEntry> entries
+    ) {
+        long now = System.currentTimeMillis();
+
+        for (RecommendationEntry entry : entries) {
+            stats.verdict(entry.userId(), entry.category(), now);
+        }
+
+        return ResponseEntity.ok(entries.size());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.loadgenerator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class LoadGeneratorApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(LoadGeneratorApplication.class, args);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.example.loadgenerator.Service;
+
+import com.example.mainservice.Model.Category;
+
+// Rozkład kategorii głosów, np. GAMING:5,MUSIC:3,SPORT:1; pusty = równo bez OTHER
+public final class CategoryDistribution {
+
+    private final double[] cumulative = new double[Category.COUNT];
+
+    public CategoryDistribution(String weights) {
+        double[] raw = new double[Category.COUNT];
+
+        if (weights == null || weights.isBlank()) {
+            for (int c = 0; c < Category.COUNT; c++) {
+                raw[c] = c == Category.OTHER.ordinal() ? 0 : 1;
+            }
+        } else {
+            for (String entry : weights.split(",")) {
+                String[] parts = entry.split(":");
+                Category category = Category.valueOf(parts[0].trim().toUpperCase());
+                raw[category.ordinal()] = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 1;
+            }
+        }
+
+        double total = 0;
+        for (int c = 0; c < Category.COUNT; c++) {
+            total += raw[c];
+            cumulative[c] = total;
+        }
+
+        if (total <= 0) {
+            throw new IllegalArgumentException("No positive category weight in: " + weights);
+        }
+
+        for (int c = 0; c < Category.COUNT; c++) {
+            cumulative[c] /= total;
+        }
+    }
+
+    // u – próbka z [0, 1)
+    public int sample(double u) {
+        for (int c = 0; c < Category.COUNT - 1; c++) {
+            if (u < cumulative[c]) {
+                return c;
+            }
+        }
+        return Category.COUNT - 1;
+    }
+}
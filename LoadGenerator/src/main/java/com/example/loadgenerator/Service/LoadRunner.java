@@ -0,0 +1,256 @@
+package com.example.loadgenerator.Service;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.mainservice.DTO.VoteBatch;
+import com.example.mainservice.DTO.VoteMessage;
+import com.example.mainservice.Model.Satellites;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+// Symulowane satelity – loadgen.sessions sesji STOMP, sesja i głosuje jako Service(i % 7 + 1).
+// Sesje tego samego serwisu dzielą się użytkownikami, więc nie ma duplikatów
+@Component
+@ConditionalOnProperty(name = "loadgen.autostart", havingValue = "true", matchIfMissing = true)
+public class LoadRunner implements ApplicationRunner {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(LoadRunner.class);
+
+    private final LoadStats stats;
+    private final ApplicationContext context;
+
+    @Value("${loadgen.main-ws-url:ws://localhost:8081/main-ws}")
+    private String mainWsUrl;
+
+    @Value("${loadgen.wire-format:cbor}")
+    private String wireFormat;
+
+    @Value("${loadgen.sessions:7}")
+    private int sessions;
+
+    @Value("${loadgen.users:100000}")
+    private int users;
+
+    @Value("${loadgen.rate:50000}")
+    private double rate;
+
+    @Value("${loadgen.batch-size:500}")
+    private int batchSize;
+
+    @Value("${loadgen.duration-seconds:60}")
+    private long durationSeconds;
+
+    @Value("${loadgen.drain-seconds:10}")
+    private long drainSeconds;
+
+    @Value("${loadgen.category-weights:}")
+    private String categoryWeights;
+
+    @Value("${loadgen.agreement:0.8}")
+    private double agreement;
+
+    @Value("${loadgen.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    public LoadRunner(LoadStats stats, ApplicationContext context) {
+        this.stats = stats;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        int services = Satellites.NAMES.size();
+        if (sessions < services) {
+            logger.warn(
+                    "Only {} sessions for {} services – rounds close only on the MainService deadline",
+                    sessions,
+                    services
+            );
+        }
+
+        WireFormat format = WireFormat.of(wireFormat);
+        WebSocketStompClient client = format.stompClient();
+        CategoryDistribution distribution = new CategoryDistribution(categoryWeights);
+
+        // "prawdziwa" kategoria każdego użytkownika – w nią trafiają zgodne satelity
+        SplittableRandom seed = new SplittableRandom(42);
+        int[] userCategory = new int[users];
+        for (int userId = 0; userId < users; userId++) {
+            userCategory[userId] = distribution.sample(seed.nextDouble());
+        }
+
+        List<SimulatedSatellite> satellites = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            StompSession session = client
+                    .connectAsync(format.endpointUrl(mainWsUrl), new StompSessionHandlerAdapter() {})
+                    .get(10, TimeUnit.SECONDS);
+
+            int serviceIndex = i % services;
+            int shards = sessions / services + (serviceIndex < sessions % services ? 1 : 0);
+
+            satellites.add(new SimulatedSatellite(
+                    session,
+                    serviceIndex,
+                    i / services,
+                    shards,
+                    distribution,
+                    userCategory,
+                    new SplittableRandom(i)
+            ));
+        }
+
+        logger.info(
+                "LOAD START → {} sessions ({}), {} users, {} votes/s, batch {}, {} s",
+                sessions,
+                format,
+                users,
+                Math.round(rate),
+                batchSize,
+                durationSeconds
+        );
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> stats.report("LOAD"), 1, 1, TimeUnit.SECONDS);
+
+        ExecutorService senders = Executors.newFixedThreadPool(sessions);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        for (SimulatedSatellite satellite : satellites) {
+            senders.execute(() -> satellite.run(deadline));
+        }
+
+        senders.shutdown();
+        senders.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS);
+        stats.report("LOAD END");
+
+        // werdykty z ostatnich rund (VerdictWriter flush, deadline rund)
+        Thread.sleep(TimeUnit.SECONDS.toMillis(drainSeconds));
+        reporter.shutdownNow();
+        stats.report("DRAINED");
+
+        for (SimulatedSatellite satellite : satellites) {
+            satellite.session.disconnect();
+        }
+        client.stop();
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /* ============================================================
+       ================== SIMULATED SATELLITE =====================
+       ============================================================ */
+
+    private final class SimulatedSatellite {
+
+        private final StompSession session;
+        private final int serviceIndex;
+        private final int shard;
+        private final int shards;
+        private final CategoryDistribution distribution;
+        private final int[] userCategory;
+        private final SplittableRandom random;
+
+        private final int frameSize;
+        private final long frameIntervalNanos;
+
+        SimulatedSatellite(
+                StompSession session,
+                int serviceIndex,
+                int shard,
+                int shards,
+                CategoryDistribution distribution,
+                int[] userCategory,
+                SplittableRandom random
+        ) {
+            this.session = session;
+            this.serviceIndex = serviceIndex;
+            this.shard = shard;
+            this.shards = shards;
+            this.distribution = distribution;
+            this.userCategory = userCategory;
+            this.random = random;
+
+            this.frameSize = Math.max(1, batchSize);
+            double sessionRate = Math.max(1, rate / sessions);
+            this.frameIntervalNanos = (long) (frameSize * 1e9 / sessionRate);
+        }
+
+        void run(long deadline) {
+            int serviceId = serviceIndex + 1;
+            long round = 1;
+            long nextFrameAt = System.nanoTime();
+
+            // drain() bez numeru sekwencji – kilka sesji udaje tę samą satelitę
+            VoteBatch.Builder batch = new VoteBatch.Builder(serviceId, round, 1.0, frameSize);
+
+            try {
+                while (System.nanoTime() < deadline) {
+
+                    for (int userId = shard; userId < users && System.nanoTime() < deadline; userId += shards) {
+
+                        batch.add(userId, 1 << vote(userId));
+
+                        if (batch.isFull()) {
+                            LockSupport.parkNanos(nextFrameAt - System.nanoTime());
+                            nextFrameAt += frameIntervalNanos;
+                            send(batch.drain());
+                        }
+                    }
+
+                    if (!batch.isEmpty()) {
+                        send(batch.drain());
+                    }
+
+                    round++;
+                    batch = new VoteBatch.Builder(serviceId, round, 1.0, frameSize);
+                }
+            } catch (Exception e) {
+                logger.error("Service{} session failed", serviceId, e);
+            }
+        }
+
+        // z prawdopodobieństwem agreement satelita trafia w "prawdziwą" kategorię użytkownika
+        private int vote(int userId) {
+            if (random.nextDouble() < agreement) {
+                return userCategory[userId];
+            }
+            return distribution.sample(random.nextDouble());
+        }
+
+        private void send(VoteBatch frame) {
+            stats.votesSent(frame.userIds(), frame.size(), System.currentTimeMillis());
+
+            if (batchSize <= 1) {
+                session.send("/app/vote", new VoteMessage(
+                        frame.userIds()[0],
+                        frame.categoryMasks()[0],
+                        frame.serviceId(),
+                        frame.roundId(),
+                        frame.weight(),
+                        frame.seq()
+                ));
+            } else {
+                session.send("/app/vote-batch", frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.loadgenerator.Service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Liczniki testu obciążeniowego; czas do werdyktu liczony od pierwszego głosu na użytkownika
+@Component
+public class LoadStats {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(LoadStats.class);
+
+    private final AtomicLongArray firstVoteAt;
+
+    private final AtomicLong votesSent = new AtomicLong();
+    private final AtomicLong verdicts = new AtomicLong();
+    private final AtomicLong otherVerdicts = new AtomicLong();
+
+    private final Timer timeToVerdict;
+
+    private long lastVotes;
+    private long lastVerdicts;
+    private long lastReportAt = System.nanoTime();
+
+    public LoadStats(@Value("${loadgen.users:100000}") int users) {
+        this.firstVoteAt = new AtomicLongArray(users);
+        this.timeToVerdict = Timer.builder("loadgen.time_to_verdict")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(new SimpleMeterRegistry());
+    }
+
+    public void votesSent(int[] userIds, int count, long nowMillis) {
+        for (int i = 0; i < count; i++) {
+            firstVoteAt.compareAndSet(userIds[i], 0, nowMillis);
+        }
+        votesSent.addAndGet(count);
+    }
+
+    public void verdict(int userId, String category, long nowMillis) {
+        verdicts.incrementAndGet();
+
+        if ("OTHER".equals(category)) {
+            otherVerdicts.incrementAndGet();
+        }
+
+        // werdykty dla użytkowników spoza testu (np. prawdziwe satelity) – tylko liczone
+        if (userId < 0 || userId >= firstVoteAt.length()) {
+            return;
+        }
+
+        long first = firstVoteAt.getAndSet(userId, 0);
+        if (first > 0) {
+            timeToVerdict.record(Math.max(0, nowMillis - first), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Loguje tempo od poprzedniego wywołania
+    public synchronized void report(String label) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastReportAt) / 1e9);
+
+        long votes = votesSent.get();
+        long done = verdicts.get();
+
+        logger.info(
+                "{} → votes/s={}, verdicts/s={}, total votes={}, verdicts={} (OTHER {}), time-to-verdict {}",
+                label,
+                Math.round((votes - lastVotes) / seconds),
+                Math.round((done - lastVerdicts) / seconds),
+                votes,
+                done,
+                otherVerdicts.get(),
+                percentiles()
+        );
+
+        lastVotes = votes;
+        lastVerdicts = done;
+        lastReportAt = now;
+    }
+
+    private String percentiles() {
+        StringBuilder out = new StringBuilder();
+
+        for (ValueAtPercentile value : timeToVerdict.takeSnapshot().percentileValues()) {
+            if (!out.isEmpty()) {
+                out.append(", ");
+            }
+            out.append("p")
+                    .append(Math.round(value.percentile() * 100))
+                    .append("=")
+                    .append(Math.round(value.value(TimeUnit.MILLISECONDS)))
+                    .append("ms");
+        }
+
+        return out.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.mainservice.benchmark;
+
+import com.example.mainservice.Config.ChannelMode;
+import com.example.mainservice.DTO.RecommendationEntry;
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Model.Satellites;
+import com.example.mainservice.Service.RoundStore;
+import org.apache.commons.logging.LogFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// Kanał inbound STOMP w obu trybach z blokującym klientem rekomendacji (latencyMillis) na wątku kanału.
+// Jeden dekorator kolejności na sesję; jedna operacja = każdy użytkownik dostał głos od siedmiu serwisów
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelExecutionBenchmark {
+
+    private static final int USERS = 700;
+
+    @Param({"POOL", "VIRTUAL"})
+    public ChannelMode mode;
+
+    @Param({"7", "70"})
+    public int sessions;
+
+    @Param({"0", "1"})
+    public int latencyMillis;
+
+    private Executor executor;
+    private RoundStore roundStore;
+    private MessageChannel[] sessionChannels;
+    private int[][][] frames;
+
+    private volatile CountDownLatch processed;
+
+    @Setup
+    public void setUp() {
+        executor = createExecutor();
+        roundStore = new RoundStore(16, 1024);
+
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel(executor);
+        inbound.subscribe(message -> {
+            int[] vote = (int[]) message.getPayload();
+            handleVote(vote[0], vote[1]);
+            processed.countDown();
+        });
+        OrderedMessageChannelDecorator.configureInterceptor(inbound, true);
+
+        int services = Satellites.NAMES.size();
+        sessionChannels = new MessageChannel[sessions];
+        frames = new int[sessions][][];
+
+        for (int i = 0; i < sessions; i++) {
+            sessionChannels[i] = new OrderedMessageChannelDecorator(
+                    inbound,
+                    LogFactory.getLog(ChannelExecutionBenchmark.class)
+            );
+
+            // jak w LoadGeneratorze – sesje tego samego serwisu dzielą się użytkownikami
+            int serviceIndex = i % services;
+            int shard = i / services;
+            int shards = sessions / services + (serviceIndex < sessions % services ? 1 : 0);
+
+            frames[i] = new int[(USERS - shard + shards - 1) / shards][];
+            int n = 0;
+            for (int userId = shard; userId < USERS; userId += shards) {
+                frames[i][n++] = new int[]{userId, serviceIndex};
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void inboundChannel() throws InterruptedException {
+        int total = 0;
+        for (int[][] sessionFrames : frames) {
+            total += sessionFrames.length;
+        }
+        processed = new CountDownLatch(total);
+
+        // satelity nadają równolegle – ramki sesji przeplatamy
+        for (int n = 0; n < frames[0].length; n++) {
+            for (int i = 0; i < sessions; i++) {
+                if (n < frames[i].length) {
+                    sessionChannels[i].send(frame(i, frames[i][n]));
+                }
+            }
+        }
+
+        processed.await();
+    }
+
+    // nagłówki muszą być mutowalne – dekorator dopina do nich "następne zadanie"
+    private static Message<int[]> frame(int session, int[] vote) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setSessionId("session-" + session);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(vote, headers.getMessageHeaders());
+    }
+
+    private void handleVote(int userId, int serviceIndex) {
+        int category = userId % Category.COUNT;
+
+        if (roundStore.vote(userId, 1, serviceIndex, 1 << category, 1.0) != Satellites.ALL_MASK) {
+            return;
+        }
+
+        roundStore.commit(userId, 1);
+        saveRecommendation(new RecommendationEntry(userId, Category.ofOrdinal(category).name()));
+    }
+
+    // zamiast RecommendationClient – blokujący POST o stałym czasie
+    private void saveRecommendation(RecommendationEntry entry) {
+        if (latencyMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Executor createExecutor() {
+        if (mode == ChannelMode.VIRTUAL) {
+            return ChannelMode.threadPerMessage("bench-inbound-", -1);
+        }
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("bench-inbound-");
+        pool.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        pool.setMaxPoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        pool.initialize();
+        return pool;
+    }
+}
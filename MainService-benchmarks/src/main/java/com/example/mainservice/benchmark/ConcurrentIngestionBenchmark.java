@@ -0,0 +1,76 @@
+package com.example.mainservice.benchmark;
+
+import com.example.mainservice.DTO.VoteMessage;
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Model.Satellites;
+import com.example.mainservice.Service.RoundStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Siedem wątków (jeden na satelitę) głosuje na tych samych użytkowników; segments = 1 to jedna globalna blokada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(7)
+public class ConcurrentIngestionBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({"1", "16"})
+    public int segments;
+
+    private Pipeline pipeline;
+    private final AtomicInteger nextService = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        pipeline = new Pipeline(segments);
+        nextService.set(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+
+        int serviceIndex;
+        int cursor;
+
+        @Setup
+        public void setUp(ConcurrentIngestionBenchmark benchmark) {
+            serviceIndex = benchmark.nextService.getAndIncrement() % Satellites.NAMES.size();
+        }
+    }
+
+    @Benchmark
+    public int storeVote(Producer producer) {
+        int userId = producer.cursor++ % USERS;
+        RoundStore store = pipeline.roundStore;
+
+        int reported = store.vote(userId, 1, producer.serviceIndex, 1 << (userId % Category.COUNT), 1.0);
+
+        // jak w kontrolerze – kto domknął rundę, ten ją zatwierdza
+        if (reported == Satellites.ALL_MASK) {
+            return store.commit(userId, 1);
+        }
+        return reported;
+    }
+
+    @Benchmark
+    public void controllerReceiveVote(Producer producer) {
+        int userId = producer.cursor++ % USERS;
+
+        pipeline.controller.receiveVote(
+                new VoteMessage(userId, 1 << (userId % Category.COUNT), producer.serviceIndex + 1, 1, 1.0, 0),
+                pipeline.headers
+        );
+    }
+}
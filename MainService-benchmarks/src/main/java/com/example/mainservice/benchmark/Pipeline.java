@@ -0,0 +1,73 @@
+package com.example.mainservice.benchmark;
+
+import com.example.mainservice.Controller.MainServiceController;
+import com.example.mainservice.DTO.RecommendationEntry;
+import com.example.mainservice.Service.AckPublisher;
+import com.example.mainservice.Service.CreditPublisher;
+import com.example.mainservice.Service.RecommendationClient;
+import com.example.mainservice.Service.RoundStore;
+import com.example.mainservice.Service.VerdictLink;
+import com.example.mainservice.Service.VerdictWriter;
+import com.example.mainservice.Service.VoteMailboxes;
+import com.example.mainservice.Service.VotingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+// Potok MainService złożony ręcznie bez Springa – HTTP do SafeLogin, ACK i kredyty wyłączone
+final class Pipeline {
+
+    final RoundStore roundStore;
+    final VerdictWriter verdictWriter;
+    final MainServiceController controller;
+    final SimpMessageHeaderAccessor headers;
+
+    Pipeline(int segments) {
+        roundStore = new RoundStore(segments, 1024);
+
+        VotingMetrics metrics = new VotingMetrics(new SimpleMeterRegistry());
+
+        RecommendationClient client = new RecommendationClient(
+                JsonMapper.builder().build(),
+                metrics,
+                new VerdictLink("http", "", 0)
+        ) {
+            @Override
+            public boolean saveRecommendations(long batchId, List<RecommendationEntry> entries) {
+                return true;
+            }
+        };
+
+        verdictWriter = new VerdictWriter(client, 500, 1000);
+
+        SimpMessagingTemplate template = new SimpMessagingTemplate(new ExecutorSubscribableChannel());
+
+        AckPublisher ackPublisher = new AckPublisher(template, "none");
+
+        // skrzynki wyłączone – głos przetwarzany na wątku benchmarku
+        VoteMailboxes mailboxes = new VoteMailboxes(roundStore, 0);
+
+        // bez subskrypcji /user/queue/credits sesja benchmarku nie jest limitowana
+        CreditPublisher creditPublisher = new CreditPublisher(template, mailboxes, Runnable::run, false, 16, 2000);
+
+        controller = new MainServiceController(
+                verdictWriter,
+                roundStore,
+                ackPublisher,
+                creditPublisher,
+                metrics,
+                mailboxes
+        );
+
+        headers = SimpMessageHeaderAccessor.create();
+        headers.setSessionId("benchmark");
+    }
+
+    void close() {
+        verdictWriter.shutdown();
+    }
+}
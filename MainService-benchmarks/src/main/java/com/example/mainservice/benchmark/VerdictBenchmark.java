@@ -0,0 +1,55 @@
+package com.example.mainservice.benchmark;
+
+import com.example.mainservice.Model.Category;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Werdykt pełnej rundy: spread = 1 – wszyscy za jedną kategorią, 7 – każdy za inną
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerdictBenchmark {
+
+    private static final int USERS = 4096;
+    private static final long EPOCH = 1;
+    private static final double[] WEIGHTS = {2.0, 0.5, 1.0, 1.0, 2.0, 0.6, 0.9};
+
+    @Param({"1", "2", "4", "7"})
+    public int spread;
+
+    private Pipeline pipeline;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        pipeline = new Pipeline(16);
+
+        for (int userId = 0; userId < USERS; userId++) {
+            // 6 z 7 serwisów – runda zostaje otwarta
+            for (int service = 0; service < WEIGHTS.length - 1; service++) {
+                int category = (userId + service % spread) % Category.COUNT;
+                pipeline.roundStore.vote(userId, EPOCH, service, 1 << category, WEIGHTS[service]);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public int peekVerdict() {
+        return pipeline.roundStore.peekVerdict(cursor++ & (USERS - 1), EPOCH);
+    }
+
+    @Benchmark
+    public Optional<String> approximateVote() {
+        return pipeline.controller.computeApproximateVoteForUser(cursor++ & (USERS - 1), EPOCH);
+    }
+}
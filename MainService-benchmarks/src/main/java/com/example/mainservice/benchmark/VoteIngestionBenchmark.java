@@ -0,0 +1,120 @@
+package com.example.mainservice.benchmark;
+
+import com.example.mainservice.DTO.VoteBatch;
+import com.example.mainservice.DTO.VoteMessage;
+import com.example.mainservice.Model.Category;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Jeden producent; co 7 operacji jedna runda otwarta, wypełniona i zamknięta.
+// Uruchomienie: java -jar target/benchmarks.jar VoteIngestion -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteIngestionBenchmark {
+
+    private static final int SERVICES = 7;
+    private static final int BATCH = 500;
+
+    @Param({"10000", "100000"})
+    public int users;
+
+    private Pipeline pipeline;
+    private int[] categoryMasks;
+    private int[] batchUserIds;
+    private int[] batchMasks;
+
+    private long cursor;
+
+    @Setup
+    public void setUp() {
+        pipeline = new Pipeline(16);
+
+        categoryMasks = new int[users];
+        for (int userId = 0; userId < users; userId++) {
+            categoryMasks[userId] = 1 << (userId % Category.COUNT);
+        }
+
+        batchUserIds = new int[BATCH];
+        batchMasks = new int[BATCH];
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public int storeVote() {
+        long step = cursor++;
+        int serviceIndex = (int) (step % SERVICES);
+        int userId = (int) ((step / SERVICES) % users);
+
+        long epoch = step / SERVICES;
+
+        int reported = pipeline.roundStore.vote(userId, epoch, serviceIndex, categoryMasks[userId], 1.0);
+
+        if (serviceIndex == SERVICES - 1) {
+            return pipeline.roundStore.commit(userId, epoch);
+        }
+        return reported;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void storeVoteBatch() {
+        long step = cursor++;
+        int serviceIndex = (int) (step % SERVICES);
+        int firstUser = (int) (((step / SERVICES) * BATCH) % users);
+
+        for (int i = 0; i < BATCH; i++) {
+            int userId = (firstUser + i) % users;
+            batchUserIds[i] = userId;
+            batchMasks[i] = categoryMasks[userId];
+        }
+
+        int[] reported = new int[BATCH];
+        long epoch = step / SERVICES;
+        pipeline.roundStore.voteBatch(serviceIndex, epoch, 1.0, batchUserIds, batchMasks, BATCH, reported);
+
+        if (serviceIndex == SERVICES - 1) {
+            for (int i = 0; i < BATCH; i++) {
+                pipeline.roundStore.commit(batchUserIds[i], epoch);
+            }
+        }
+    }
+
+    // Pełny handler /app/vote: store, metryki, commit, kolejka werdyktów
+    @Benchmark
+    public void controllerReceiveVote() {
+        long step = cursor++;
+        int serviceIndex = (int) (step % SERVICES);
+        int userId = (int) ((step / SERVICES) % users);
+
+        pipeline.controller.receiveVote(
+                new VoteMessage(userId, categoryMasks[userId], serviceIndex + 1, step / SERVICES, 1.0, 0),
+                pipeline.headers
+        );
+    }
+
+    // Pełny handler /app/vote-batch, BATCH głosów na ramkę
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void controllerReceiveVoteBatch() {
+        long step = cursor++;
+        int serviceIndex = (int) (step % SERVICES);
+        int firstUser = (int) (((step / SERVICES) * BATCH) % users);
+
+        VoteBatch.Builder builder = new VoteBatch.Builder(serviceIndex + 1, step / SERVICES, 1.0, BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            int userId = (firstUser + i) % users;
+            builder.add(userId, categoryMasks[userId]);
+        }
+
+        pipeline.controller.receiveVoteBatch(builder.drain(), pipeline.headers);
+    }
+}
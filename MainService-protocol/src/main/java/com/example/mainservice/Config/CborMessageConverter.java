@@ -0,0 +1,77 @@
+package com.example.mainservice.Config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+import tools.jackson.core.JacksonException;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Konwerter STOMP dla CBOR. Content-type application/octet-stream;codec=cbor –
+// klient STOMP Springa wysyła ramkę binarną tylko dla octet-stream, tekstowa zepsułaby bajty CBOR
+public class CborMessageConverter extends AbstractMessageConverter {
+
+    public static final MimeType CBOR_FRAME =
+            new MimeType("application", "octet-stream", Map.of("codec", "cbor"));
+
+    public static final MimeType APPLICATION_CBOR =
+            new MimeType("application", "cbor");
+
+    private final CBORMapper mapper;
+
+    public CborMessageConverter() {
+        this(new CBORMapper());
+    }
+
+    public CborMessageConverter(CBORMapper mapper) {
+        super(CBOR_FRAME, APPLICATION_CBOR);
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected Object convertFromInternal(
+            Message<?> message,
+            Class<?> targetClass,
+            Object conversionHint
+    ) {
+        Object payload = message.getPayload();
+
+        try {
+            byte[] bytes = payload instanceof byte[] raw
+                    ? raw
+                    : payload.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+            return mapper.readValue(bytes, targetClass);
+
+        } catch (JacksonException e) {
+            throw new MessageConversionException(
+                    message, "Could not read CBOR: " + e.getOriginalMessage(), e
+            );
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(
+            Object payload,
+            MessageHeaders headers,
+            Object conversionHint
+    ) {
+        try {
+            return mapper.writeValueAsBytes(payload);
+
+        } catch (JacksonException e) {
+            throw new MessageConversionException(
+                    "Could not write CBOR: " + e.getOriginalMessage(), e
+            );
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.mainservice.Config;
+
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.util.List;
+
+// Format ramek satelity (satellite.wire-format); MainService przyjmuje oba na /main-ws
+public enum WireFormat {
+    JSON,
+    CBOR;
+
+    public static WireFormat of(String name) {
+        return name == null || name.isBlank()
+                ? JSON
+                : valueOf(name.trim().toUpperCase());
+    }
+
+    public MessageConverter messageConverter() {
+        return this == CBOR
+                ? new CborMessageConverter()
+                : new JacksonJsonMessageConverter();
+    }
+
+    // Content-type ramek – w nim MainService odpowiada satelicie
+    public MimeType mimeType() {
+        return this == CBOR
+                ? CborMessageConverter.CBOR_FRAME
+                : MimeTypeUtils.APPLICATION_JSON;
+    }
+
+    public WebSocketStompClient stompClient() {
+
+        // SockJS przenosi tylko ramki tekstowe – CBOR idzie czystym WebSocketem
+        WebSocketStompClient client = this == CBOR
+                ? new WebSocketStompClient(new StandardWebSocketClient())
+                : new WebSocketStompClient(new SockJsClient(List.of(
+                        new WebSocketTransport(new StandardWebSocketClient())
+                )));
+
+        client.setMessageConverter(messageConverter());
+        return client;
+    }
+
+    // sockJsUrl np. ws://localhost:8081/main-ws; CBOR idzie surowym WebSocketem (/websocket)
+    public String endpointUrl(String sockJsUrl) {
+        return this == CBOR ? sockJsUrl + "/websocket" : sockJsUrl;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.mainservice.DTO;
+
+public record RecommendationEntry(
+        int userId,
+        String category
+) {}
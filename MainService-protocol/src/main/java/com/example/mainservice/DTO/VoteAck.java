@@ -0,0 +1,15 @@
+package com.example.mainservice.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Potwierdzenie dla jednej sesji satelity (/user/queue/ack): przetworzone wszystko do roundId i seq,
+// satelita usuwa te ramki z bufora do ponownej wysyłki
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"serviceId", "roundId", "seq", "votes"})
+public record VoteAck(
+        int serviceId,
+        long roundId,
+        long seq,
+        int votes
+) {}
@@ -0,0 +1,87 @@
+package com.example.mainservice.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Arrays;
+
+// Wiele głosów jednej satelity w jednej ramce (/app/vote-batch):
+// [serviceId, roundId, seq, weight, [userIds...], [masks...]]; broadcast = userIds [ALL_USERS]
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"serviceId", "roundId", "seq", "weight", "userIds", "categoryMasks"})
+public record VoteBatch(
+        int serviceId,
+        long roundId,
+        long seq,
+        double weight,
+        int[] userIds,
+        int[] categoryMasks
+) {
+
+    // Jedyny userId ramki broadcast – głos dotyczy wszystkich użytkowników.
+    public static final int ALL_USERS = -1;
+
+    public static VoteBatch broadcast(int serviceId, long roundId, long seq, double weight, int categoryMask) {
+        return new VoteBatch(serviceId, roundId, seq, weight, new int[]{ALL_USERS}, new int[]{categoryMask});
+    }
+
+    public boolean isBroadcast() {
+        return size() == 1 && userIds[0] == ALL_USERS;
+    }
+
+    public int size() {
+        return Math.min(userIds.length, categoryMasks.length);
+    }
+
+    // Bufor po stronie satelity – zbiera głosy jednej rundy do capacity, potem drain() oddaje paczkę
+    public static final class Builder {
+
+        private final int serviceId;
+        private final long roundId;
+        private final double weight;
+
+        private final int[] userIds;
+        private final int[] categoryMasks;
+        private int size;
+
+        public Builder(int serviceId, long roundId, double weight, int capacity) {
+            this.serviceId = serviceId;
+            this.roundId = roundId;
+            this.weight = weight;
+            this.userIds = new int[Math.max(1, capacity)];
+            this.categoryMasks = new int[userIds.length];
+        }
+
+        public void add(int userId, int categoryMask) {
+            userIds[size] = userId;
+            categoryMasks[size] = categoryMask;
+            size++;
+        }
+
+        public boolean isFull() {
+            return size == userIds.length;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        // Paczka bez numeru sekwencji – MainService jej nie deduplikuje.
+        public VoteBatch drain() {
+            return drain(0);
+        }
+
+        public VoteBatch drain(long seq) {
+            VoteBatch batch = new VoteBatch(
+                    serviceId,
+                    roundId,
+                    seq,
+                    weight,
+                    Arrays.copyOf(userIds, size),
+                    Arrays.copyOf(categoryMasks, size)
+            );
+            size = 0;
+            return batch;
+        }
+    }
+}
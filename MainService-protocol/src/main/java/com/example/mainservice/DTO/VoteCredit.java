@@ -0,0 +1,15 @@
+package com.example.mainservice.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Kredyty dla sesji satelity (/user/queue/credits): tyle ramek więcej może wysłać, serializowane jako [credits]
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"credits"})
+public record VoteCredit(
+        int credits
+) {
+
+    // odpowiedź na SUBSCRIBE, gdy MainService nie steruje przepływem (mainservice.flow.enabled=false)
+    public static final int UNLIMITED = -1;
+}
@@ -0,0 +1,17 @@
+package com.example.mainservice.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Głos satelity na /app/vote, serializowany jako tablica [userId, categoryMask, serviceId, roundId, weight, seq].
+// roundId = epoka rundy, seq = numer ramki nadawcy (0 = bez numeracji)
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"userId", "categoryMask", "serviceId", "roundId", "weight", "seq"})
+public record VoteMessage(
+        int userId,
+        int categoryMask,
+        int serviceId,
+        long roundId,
+        double weight,
+        long seq
+) {}
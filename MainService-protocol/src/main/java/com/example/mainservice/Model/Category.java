@@ -0,0 +1,59 @@
+package com.example.mainservice.Model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Ta sama kolejność co w SafeLogin, ordinal = indeks w tablicy wag RoundStore
+public enum Category {
+    GAMING,
+    EDUCATION,
+    MUSIC,
+    SPORT,
+    MOVIES,
+    TECHNOLOGY,
+    OTHER;
+
+    public static final int COUNT = values().length;
+
+    public static final int ALL_MASK = (1 << COUNT) - 1;
+
+    private static final Category[] VALUES = values();
+
+    private static final Map<String, Category> BY_NAME = new HashMap<>();
+
+    static {
+        for (Category category : VALUES) {
+            BY_NAME.put(category.name(), category);
+        }
+    }
+
+    public static Category ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Maska rozpoznanych kategorii ("MUSIC,SPORT" z Service7), 0 gdy nic; nie rzuca wyjątków
+    public static int parseMask(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+
+        int mask = 0;
+        int start = 0;
+
+        while (start <= value.length()) {
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = value.length();
+            }
+
+            Category category = BY_NAME.get(value.substring(start, end).trim().toUpperCase());
+            if (category != null) {
+                mask |= 1 << category.ordinal();
+            }
+
+            start = end + 1;
+        }
+
+        return mask;
+    }
+}
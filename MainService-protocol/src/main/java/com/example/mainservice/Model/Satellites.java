@@ -0,0 +1,22 @@
+package com.example.mainservice.Model;
+
+import java.util.List;
+
+// Satelity głosujące w rundzie; indeks = serviceId - 1 = bit w masce RoundStore
+public final class Satellites {
+
+    public static final List<String> NAMES = List.of(
+            "Service1",
+            "Service2",
+            "Service3",
+            "Service4",
+            "Service5",
+            "Service6",
+            "Service7"
+    );
+
+    public static final int ALL_MASK = (1 << NAMES.size()) - 1;
+
+    private Satellites() {
+    }
+}
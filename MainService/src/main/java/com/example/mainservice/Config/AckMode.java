@@ -0,0 +1,15 @@
+package com.example.mainservice.Config;
+
+// mainservice.ack.mode: NONE – bez odpowiedzi, SESSION – VoteAck na każdą ramkę,
+// CUMULATIVE – jeden VoteAck na paczkę albo na rundę
+public enum AckMode {
+    NONE,
+    SESSION,
+    CUMULATIVE;
+
+    public static AckMode of(String name) {
+        return name == null || name.isBlank()
+                ? NONE
+                : valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.mainservice.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+// mainservice.channels.mode: POOL – stała pula wątków platformowych,
+// VIRTUAL – nowy wątek na wiadomość (wirtualny od JDK 21). Ramki jednej sesji zawsze po kolei
+public enum ChannelMode {
+    POOL,
+    VIRTUAL;
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(ChannelMode.class);
+
+    public static ChannelMode of(String name) {
+        return name == null || name.isBlank()
+                ? POOL
+                : valueOf(name.trim().toUpperCase());
+    }
+
+    // Executor dla trybu VIRTUAL; concurrencyLimit -1 = bez limitu, powyżej limitu nadawca czeka
+    public static SimpleAsyncTaskExecutor threadPerMessage(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setConcurrencyLimit(concurrencyLimit);
+
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            // JDK < 21 – zostaje wątek platformowy na wiadomość
+            logger.warn("{} – {} runs one platform thread per message", e.getMessage(), threadNamePrefix);
+        }
+
+        return executor;
+    }
+}
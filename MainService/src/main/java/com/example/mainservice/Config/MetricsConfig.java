@@ -0,0 +1,72 @@
+package com.example.mainservice.Config;
+
+import com.example.mainservice.Service.CreditPublisher;
+import com.example.mainservice.Service.RoundStore;
+import com.example.mainservice.Service.VerdictWriter;
+import com.example.mainservice.Service.VoteMailboxes;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+// Gauge potoku głosowania; liczniki i histogramy są w VotingMetrics
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder votingGauges(
+            RoundStore roundStore,
+            VerdictWriter verdictWriter,
+            VoteMailboxes mailboxes,
+            CreditPublisher credits,
+            @Qualifier("clientInboundChannelExecutor") Executor inbound,
+            @Qualifier("clientOutboundChannelExecutor") Executor outbound
+    ) {
+        return registry -> {
+            Gauge.builder("mainservice.rounds.in_flight", roundStore, RoundStore::size)
+                    .description("Open vote rounds")
+                    .register(registry);
+
+            Gauge.builder("mainservice.verdicts.pending", verdictWriter, VerdictWriter::pendingCount)
+                    .description("Verdicts waiting for the next batch POST")
+                    .register(registry);
+
+            Gauge.builder("mainservice.mailboxes.queued", mailboxes, VoteMailboxes::queuedCount)
+                    .description("Vote tasks waiting in the per-user mailboxes")
+                    .register(registry);
+
+            Gauge.builder("mainservice.flow.window", credits, CreditPublisher::window)
+                    .description("Vote frames in flight allowed per satellite session")
+                    .register(registry);
+
+            Gauge.builder("mainservice.flow.backlog", credits, CreditPublisher::backlog)
+                    .description("Inbound frames and mailbox tasks the credit window is computed from")
+                    .register(registry);
+
+            registerQueueDepth(registry, "inbound", inbound);
+            registerQueueDepth(registry, "outbound", outbound);
+        };
+    }
+
+    // kanały STOMP – ile ramek czeka na wątek
+    private static void registerQueueDepth(
+            MeterRegistry registry,
+            String channel,
+            Executor executor
+    ) {
+        if (!(executor instanceof ThreadPoolTaskExecutor pool)) {
+            return;
+        }
+
+        Gauge.builder("mainservice.stomp.queue_depth", pool,
+                        p -> p.getThreadPoolExecutor().getQueue().size())
+                .description("Messages queued on the STOMP channel executor")
+                .tag("channel", channel)
+                .register(registry);
+    }
+}
@@ -1,27 +1,82 @@
 package com.example.mainservice.Config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSocketMessageBroker
 @EnableScheduling
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ChannelMode channelMode;
+    private final int poolSize;
+    private final int maxConcurrency;
+
+    public WebSocketConfig(
+            @Value("${mainservice.channels.mode:pool}") String channelMode,
+            @Value("${mainservice.channels.pool-size:0}") int poolSize,
+            @Value("${mainservice.channels.max-concurrency:-1}") int maxConcurrency
+    ) {
+        this.channelMode = ChannelMode.of(channelMode);
+        this.poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors() * 2;
+        this.maxConcurrency = maxConcurrency;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/main-ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+
+        // ramki jednej sesji po kolei – kolejność głosów satelity per użytkownik
+        registry.setPreserveReceiveOrder(true);
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker("/topic", "/queue"); // odpowiedzi do satelit
         registry.setApplicationDestinationPrefixes("/app"); // ścieżki przychodzące od satelit
+        registry.setPreservePublishOrder(true);
+
+        // brokerChannel bez własnego executora: broker działa na wątku, który
+        // publikuje (inbound w wybranym trybie), więc ACK-i sesji nie wyprzedzają się
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        configureExecution(registration, "clientInboundChannel-");
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureExecution(registration, "clientOutboundChannel-");
+    }
+
+    private void configureExecution(ChannelRegistration registration, String threadNamePrefix) {
+        if (channelMode == ChannelMode.VIRTUAL) {
+            registration.executor(ChannelMode.threadPerMessage(threadNamePrefix, maxConcurrency));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(poolSize)
+                    .maxPoolSize(poolSize);
+        }
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // CBOR tylko dla ramek z jego content-type, reszta -> domyślny JSON
+        CborMessageConverter cbor = new CborMessageConverter();
+        cbor.setStrictContentTypeMatch(true);
+        messageConverters.add(cbor);
+        return true;
     }
 }
@@ -1,19 +1,29 @@
 package com.example.mainservice.Controller;
 
-import com.example.mainservice.DTO.MainResponse;
 import com.example.mainservice.DTO.ServiceMessage;
 import com.example.mainservice.DTO.UserCategoryPayload;
-import com.example.mainservice.Service.RecommendationClient;
+import com.example.mainservice.DTO.VoteBatch;
+import com.example.mainservice.DTO.VoteMessage;
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Model.Satellites;
+import com.example.mainservice.Model.SequenceWindow;
+import com.example.mainservice.Service.AckPublisher;
+import com.example.mainservice.Service.CreditPublisher;
+import com.example.mainservice.Service.RoundStore;
+import com.example.mainservice.Service.VerdictWriter;
+import com.example.mainservice.Service.VoteMailboxes;
+import com.example.mainservice.Service.VotingMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 public class MainServiceController {
@@ -21,89 +31,437 @@ public class MainServiceController {
     private static final Logger logger =
             LoggerFactory.getLogger(MainServiceController.class);
 
-    private static final double EPSILON = 0.15;
+    private static final List<String> EXPECTED_SERVICES = Satellites.NAMES;
 
-    private static final Set<String> EXPECTED_SERVICES = Set.of(
-            "Service1",
-            "Service2",
-            "Service3",
-            "Service4",
-            "Service5",
-            "Service6",
-            "Service7"
-    );
+    private static final int ALL_SERVICES_MASK = Satellites.ALL_MASK;
 
-    private final RecommendationClient recommendationClient;
+    private final VerdictWriter verdictWriter;
+    private final AckPublisher ackPublisher;
+    private final CreditPublisher creditPublisher;
+    private final VotingMetrics metrics;
 
-    public MainServiceController(
-            RecommendationClient recommendationClient
-    ) {
-        this.recommendationClient = recommendationClient;
-    }
+    // głosy jednego użytkownika zawsze na tym samym wątku, po kolei
+    private final VoteMailboxes mailboxes;
+
+    // serviceIndex -> ramki już przyjęte (powtórki po reconnect odpadają tutaj)
+    private final SequenceWindow[] sequences = new SequenceWindow[EXPECTED_SERVICES.size()];
+
+    // długość epoki rundy – musi się zgadzać z satellite.round-epoch-ms
+    @Value("${mainservice.rounds.epoch-ms:60000}")
+    private long roundEpochMs;
+
+    // runda bez kompletu głosów zamyka się po tym czasie od pierwszego głosu
+    @Value("${mainservice.rounds.deadline-ms:120000}")
+    private long roundDeadlineMs;
+
+    // minimalna suma wag, przy której przeterminowana runda daje werdykt
+    @Value("${mainservice.rounds.min-quorum-weight:4.0}")
+    private double minQuorumWeight;
 
     /* ============================================================
        ====================== STORAGE =============================
        ============================================================ */
 
-    // userId -> (serviceName -> message)
-    private final ConcurrentHashMap<Integer,
-            ConcurrentHashMap<String, ServiceMessage>>
-            lastMessagesPerUser = new ConcurrentHashMap<>();
+    // userId -> (maska serwisów, waga na kategorię)
+    private final RoundStore roundStore;
 
-    // userId -> set(serviceName)
-    private final ConcurrentHashMap<Integer, Set<String>>
-            receivedServicesPerUser = new ConcurrentHashMap<>();
+    public MainServiceController(
+            VerdictWriter verdictWriter,
+            RoundStore roundStore,
+            AckPublisher ackPublisher,
+            CreditPublisher creditPublisher,
+            VotingMetrics metrics,
+            VoteMailboxes mailboxes
+    ) {
+        this.verdictWriter = verdictWriter;
+        this.ackPublisher = ackPublisher;
+        this.creditPublisher = creditPublisher;
+        this.metrics = metrics;
+        this.roundStore = roundStore;
+        this.mailboxes = mailboxes;
+
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = new SequenceWindow();
+        }
+    }
 
     /* ============================================================
        ================== WEBSOCKET ENDPOINT ======================
        ============================================================ */
 
-    @MessageMapping("/from-service")
-    @SendTo("/topic/main-broadcast")
-    public MainResponse receiveMessage(ServiceMessage message) {
+    @MessageMapping("/vote")
+    public void receiveVote(
+            VoteMessage vote,
+            SimpMessageHeaderAccessor headers
+    ) {
 
-        extractPayload(message).ifPresent(payload -> {
+        int serviceIndex = vote.serviceId() - 1;
 
-            Integer userId = payload.userId();
-            String serviceName = message.getServiceName();
+        creditPublisher.frameReceived(headers);
+        ackPublisher.frameReceived(headers, vote.seq());
 
-            lastMessagesPerUser
-                    .computeIfAbsent(userId, id -> new ConcurrentHashMap<>())
-                    .put(serviceName, message);
+        if (isKnownService(serviceIndex) && !sequences[serviceIndex].accept(vote.seq())) {
+            metrics.frameReplayed(serviceIndex);
+            ackPublisher.voteProcessed(headers, vote.serviceId(), vote.roundId(), vote.seq());
+            creditPublisher.frameProcessed(headers);
+            return;
+        }
 
-            receivedServicesPerUser
-                    .computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet())
-                    .add(serviceName);
+        mailboxes.execute(vote.userId(), () -> {
+            recordVote(
+                    vote.userId(),
+                    vote.roundId(),
+                    serviceIndex,
+                    vote.categoryMask() & Category.ALL_MASK,
+                    vote.weight()
+            );
 
+            ackPublisher.voteProcessed(headers, vote.serviceId(), vote.roundId(), vote.seq());
+            creditPublisher.frameProcessed(headers);
+        });
+    }
+
+    // cały chunk jednej satelity – jedno przejście po RoundStore
+    @MessageMapping("/vote-batch")
+    public void receiveVoteBatch(
+            VoteBatch batch,
+            SimpMessageHeaderAccessor headers
+    ) {
+
+        int serviceIndex = batch.serviceId() - 1;
+
+        // każda ramka zużywa kredyt sesji, także odrzucona
+        creditPublisher.frameReceived(headers);
+
+        if (!isKnownService(serviceIndex)) {
+            logger.warn("Unknown service #{} → batch ignored", batch.serviceId());
+            creditPublisher.frameProcessed(headers);
+            return;
+        }
+
+        // od tej chwili każda ścieżka kończy się ACK – dopiero teraz ramka wchodzi do kolejki sesji
+        ackPublisher.frameReceived(headers, batch.seq());
+
+        // ramka wysłana ponownie po reconnect – głosy już są w rundach, tylko potwierdzamy
+        if (!sequences[serviceIndex].accept(batch.seq())) {
+            metrics.frameReplayed(serviceIndex);
             logger.info(
-                    "User {} → received from {} ({}/{})",
-                    userId,
-                    serviceName,
-                    receivedServicesPerUser.get(userId).size(),
-                    EXPECTED_SERVICES.size()
+                    "Batch #{} from {} already processed → replay ignored",
+                    batch.seq(),
+                    EXPECTED_SERVICES.get(serviceIndex)
             );
+            ackPublisher.batchProcessed(headers, batch.serviceId(), batch.roundId(), batch.seq(), 0);
+            creditPublisher.frameProcessed(headers);
+            return;
+        }
+
+        if (batch.isBroadcast()) {
+            receiveBroadcast(batch, serviceIndex, headers);
+            return;
+        }
 
-            if (receivedServicesPerUser.get(userId)
-                    .containsAll(EXPECTED_SERVICES)) {
+        int size = batch.size();
+        int[] userIds = batch.userIds();
+        int[] categoryMasks = batch.categoryMasks();
 
-                handleSynchronizedUser(userId);
-            }
+        for (int i = 0; i < size; i++) {
+            categoryMasks[i] &= Category.ALL_MASK;
+        }
+
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger late = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        // każdy pas dostaje swoją część paczki; podsumowanie po ostatniej
+        mailboxes.executeBatch(
+                userIds,
+                categoryMasks,
+                size,
+                (sliceUsers, sliceMasks, count) -> {
+                    int[] reported = new int[count];
+                    roundStore.voteBatch(
+                            serviceIndex,
+                            batch.roundId(),
+                            batch.weight(),
+                            sliceUsers,
+                            sliceMasks,
+                            count,
+                            reported
+                    );
+
+                    for (int i = 0; i < count; i++) {
+                        if (reported[i] == RoundStore.DUPLICATE) {
+                            duplicates.incrementAndGet();
+                        } else if (reported[i] == RoundStore.LATE) {
+                            late.incrementAndGet();
+                        } else if (isFinal(reported[i])) {
+                            completed.incrementAndGet();
+                            handleSynchronizedUser(sliceUsers[i], batch.roundId(), reported[i]);
+                        }
+                    }
+                },
+                () -> {
+                    metrics.voteAccepted(serviceIndex, size - duplicates.get() - late.get());
+                    metrics.voteDuplicate(serviceIndex, duplicates.get());
+                    metrics.voteLate(serviceIndex, late.get());
+
+                    logger.info(
+                            "Batch from {} → {} votes, {} duplicates, {} late, {} rounds complete",
+                            EXPECTED_SERVICES.get(serviceIndex),
+                            size,
+                            duplicates.get(),
+                            late.get(),
+                            completed.get()
+                    );
+
+                    ackPublisher.batchProcessed(headers, batch.serviceId(), batch.roundId(), batch.seq(), size);
+                    creditPublisher.frameProcessed(headers);
+                }
+        );
+    }
+
+    // jeden głos dla wszystkich (Service5) – stały głos epoki plus otwarte rundy, segment po segmencie na swoim pasie
+    private void receiveBroadcast(
+            VoteBatch batch,
+            int serviceIndex,
+            SimpMessageHeaderAccessor headers
+    ) {
+        long epoch = batch.roundId();
+        int categoryMask = batch.categoryMasks()[0] & Category.ALL_MASK;
+
+        if (!roundStore.standingVote(serviceIndex, epoch, categoryMask, batch.weight())) {
+            metrics.voteDuplicate(serviceIndex, 1);
+            logger.info(
+                    "Broadcast from {} for round {} already recorded → ignored",
+                    EXPECTED_SERVICES.get(serviceIndex),
+                    epoch
+            );
+            ackPublisher.batchProcessed(headers, batch.serviceId(), epoch, batch.seq(), 1);
+            creditPublisher.frameProcessed(headers);
+            return;
+        }
+
+        AtomicInteger reached = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        mailboxes.executeSegments(
+                segment -> reached.addAndGet(roundStore.voteOpen(
+                        segment,
+                        serviceIndex,
+                        epoch,
+                        categoryMask,
+                        batch.weight(),
+                        (userId, roundEpoch, reported) -> {
+                            if (isFinal(reported)) {
+                                completed.incrementAndGet();
+                                // już na pasie użytkownika – jak przy zwykłym głosie
+                                handleSynchronizedUser(userId, roundEpoch, reported);
+                            }
+                        }
+                )),
+                () -> {
+                    metrics.voteAccepted(serviceIndex, reached.get());
+                    logger.info(
+                            "Broadcast from {} → round {}, {} open rounds, {} complete",
+                            EXPECTED_SERVICES.get(serviceIndex),
+                            epoch,
+                            reached.get(),
+                            completed.get()
+                    );
+
+                    ackPublisher.batchProcessed(headers, batch.serviceId(), epoch, batch.seq(), 1);
+                    creditPublisher.frameProcessed(headers);
+                }
+        );
+    }
+
+    // stary format (ServiceMessage z Map w content) – dla satelit sprzed /vote;
+    // nie ma numeru rundy: epoka z zegara MainService, ACK praktycznie tylko w trybie SESSION
+    @MessageMapping("/from-service")
+    public void receiveMessage(
+            ServiceMessage message,
+            SimpMessageHeaderAccessor headers
+    ) {
+        int serviceIndex = EXPECTED_SERVICES.indexOf(message.getServiceName());
+
+        Optional<UserCategoryPayload> payload = extractPayload(message);
+
+        if (payload.isEmpty()) {
+            ackPublisher.voteProcessed(headers, serviceIndex + 1, 0, 0);
+            return;
+        }
+
+        int userId = payload.get().userId();
+        long epoch = currentEpoch();
+
+        mailboxes.execute(userId, () -> {
+            recordVote(
+                    userId,
+                    epoch,
+                    serviceIndex,
+                    Category.parseMask(payload.get().category()),
+                    message.getWeight()
+            );
+
+            ackPublisher.voteProcessed(headers, serviceIndex + 1, 0, 0);
         });
+    }
+
+    private void recordVote(
+            int userId,
+            long epoch,
+            int serviceIndex,
+            int categoryMask,
+            double weight
+    ) {
+        if (!isKnownService(serviceIndex)) {
+            logger.warn("Unknown service #{} → ignored", serviceIndex + 1);
+            return;
+        }
+
+        String serviceName = EXPECTED_SERVICES.get(serviceIndex);
+
+        int reported = roundStore.vote(
+                userId,
+                epoch,
+                serviceIndex,
+                categoryMask,
+                weight
+        );
 
-        return new MainResponse("ACK from MainService");
+        if (reported == RoundStore.DUPLICATE) {
+            metrics.voteDuplicate(serviceIndex, 1);
+            logger.debug(
+                    "User {} → duplicate vote from {} ignored",
+                    userId,
+                    serviceName
+            );
+            return;
+        }
+
+        if (reported == RoundStore.LATE) {
+            metrics.voteLate(serviceIndex, 1);
+            logger.debug(
+                    "User {} → late vote from {} ignored, round already decided",
+                    userId,
+                    serviceName
+            );
+            return;
+        }
+
+        metrics.voteAccepted(serviceIndex, 1);
+
+        logger.info(
+                "User {} → received from {} ({}/{})",
+                userId,
+                serviceName,
+                Integer.bitCount(reported & ALL_SERVICES_MASK),
+                EXPECTED_SERVICES.size()
+        );
+
+        if (isFinal(reported)) {
+            handleSynchronizedUser(userId, epoch, reported);
+        }
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / roundEpochMs;
+    }
+
+    private static boolean isKnownService(int serviceIndex) {
+        return serviceIndex >= 0 && serviceIndex < EXPECTED_SERVICES.size();
+    }
+
+    // komplet głosów albo brakujące serwisy nie mogą już zmienić werdyktu
+    private static boolean isFinal(int reported) {
+        return reported == ALL_SERVICES_MASK || (reported & RoundStore.DECIDED) != 0;
     }
 
     /* ============================================================
        ================= SYNCHRONIZED USER ========================
        ============================================================ */
 
-    private void handleSynchronizedUser(Integer userId) {
+    private void handleSynchronizedUser(int userId, long epoch, int reported) {
+
+        // commit zdejmuje rundę ze store – kolejna runda zaczyna się od zera;
+        // runda zamknięta przed kompletem zostaje jako tombstone dla spóźnionych głosów
+        RoundStore.Closed round = roundStore.close(userId, epoch);
+
+        if (round == null) {
+            return;
+        }
+
+        if (reported == ALL_SERVICES_MASK) {
+            metrics.roundCompleted(
+                    round.openedAtMillis(),
+                    round.lastVoteAtMillis(),
+                    System.currentTimeMillis()
+            );
+        } else {
+            logger.info(
+                    "ROUND DECIDED EARLY → user={}, round={}, {}/{} services",
+                    userId,
+                    epoch,
+                    Integer.bitCount(reported & ALL_SERVICES_MASK),
+                    EXPECTED_SERVICES.size()
+            );
+            metrics.roundDecidedEarly(
+                    round.openedAtMillis(),
+                    round.lastVoteAtMillis(),
+                    System.currentTimeMillis()
+            );
+        }
+
+        publishVerdict(userId, round.verdict());
+    }
+
+    /* ============================================================
+       =================== ROUND DEADLINES ========================
+       ============================================================ */
+
+    @Scheduled(fixedDelayString = "${mainservice.rounds.sweep-interval-ms:5000}")
+    public void expireRounds() {
+
+        long now = System.currentTimeMillis();
+        long cutoff = now - roundDeadlineMs;
+
+        roundStore.expire(cutoff, (userId, epoch, reportedMask, reportedWeight, verdict, openedAt, lastVoteAt) -> {
+
+            if (reportedWeight < minQuorumWeight) {
+                metrics.roundDiscarded();
+                logger.warn(
+                        "ROUND DISCARDED → user={}, round={}, quorum {}/{} below minimum ({} services)",
+                        userId,
+                        epoch,
+                        reportedWeight,
+                        minQuorumWeight,
+                        Integer.bitCount(reportedMask)
+                );
+                return;
+            }
+
+            logger.info(
+                    "ROUND TIMED OUT → user={}, round={}, committing with quorum {} ({}/{} services)",
+                    userId,
+                    epoch,
+                    reportedWeight,
+                    Integer.bitCount(reportedMask),
+                    EXPECTED_SERVICES.size()
+            );
+
+            metrics.roundTimedOut(openedAt, lastVoteAt, now);
+            publishVerdict(userId, verdict);
+        });
+    }
 
-        String finalCategory =
-                computeApproximateVoteForUser(userId)
-                        .orElse("OTHER");
+    private void publishVerdict(int userId, int verdict) {
 
-        if ("OTHER".equals(finalCategory)) {
+        String finalCategory = verdict == RoundStore.NO_VERDICT
+                ? Category.OTHER.name()
+                : Category.ofOrdinal(verdict).name();
+
+        if (verdict == RoundStore.NO_VERDICT) {
+            metrics.otherVerdict();
             logger.warn(
                     "NO CONFIDENT VERDICT → user={}, saving OTHER",
                     userId
@@ -116,12 +474,8 @@ public class MainServiceController {
             );
         }
 
-        recommendationClient
-                .saveRecommendation(userId, finalCategory);
-
-        // reset po zakończeniu rundy
-        lastMessagesPerUser.remove(userId);
-        receivedServicesPerUser.remove(userId);
+        // nie blokuje – zapis idzie zbiorczo z wątku VerdictWriter
+        verdictWriter.submit(userId, finalCategory);
     }
 
 
@@ -159,63 +513,16 @@ public class MainServiceController {
        ============================================================ */
 
     public Optional<String> computeApproximateVoteForUser(
-            Integer userId
+            Integer userId,
+            long epoch
     ) {
+        int verdict = roundStore.peekVerdict(userId, epoch);
 
-        Map<String, ServiceMessage> userMessages =
-                lastMessagesPerUser.get(userId);
-
-        if (userMessages == null || userMessages.isEmpty()) {
-            return Optional.empty();
-        }
-
-        Map<String, Double> weightSums = new HashMap<>();
-
-        userMessages.values().forEach(msg ->
-                extractPayload(msg).ifPresent(payload ->
-                        weightSums.merge(
-                                payload.category(),
-                                msg.getWeight(),
-                                Double::sum
-                        )
-                )
-        );
-
-        if (weightSums.isEmpty()) {
-            return Optional.empty();
-        }
-
-        if (weightSums.size() == 1) {
-            return Optional.of(
-                    weightSums.keySet().iterator().next()
-            );
-        }
-
-        double totalWeight = weightSums.values()
-                .stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
-
-        List<Map.Entry<String, Double>> sorted =
-                weightSums.entrySet()
-                        .stream()
-                        .sorted(
-                                Map.Entry.<String, Double>
-                                                comparingByValue()
-                                        .reversed()
-                        )
-                        .toList();
-
-        double top = sorted.get(0).getValue();
-        double second = sorted.get(1).getValue();
-
-        double relativeDiff = (top - second) / totalWeight;
-
-        if (relativeDiff < EPSILON) {
+        if (verdict < 0) {
             return Optional.empty();
         }
 
-        return Optional.of(sorted.get(0).getKey());
+        return Optional.of(Category.ofOrdinal(verdict).name());
     }
 
     /* ============================================================
@@ -226,12 +533,26 @@ public class MainServiceController {
     public Map<String, Object> getVoteResult() {
 
         Map<String, Object> result = new HashMap<>();
+        // userId -> epoka -> serwisy, które już zagłosowały
+        Map<Integer, Map<Long, List<String>>> receivedServices = new TreeMap<>();
+
+        roundStore.forEach((userId, epoch, reportedMask) -> {
+            List<String> services = new ArrayList<>();
+            for (int i = 0; i < EXPECTED_SERVICES.size(); i++) {
+                if ((reportedMask & (1 << i)) != 0) {
+                    services.add(EXPECTED_SERVICES.get(i));
+                }
+            }
+            receivedServices
+                    .computeIfAbsent(userId, id -> new TreeMap<>())
+                    .put(epoch, services);
+        });
 
-        result.put("users", lastMessagesPerUser.keySet());
+        result.put("users", receivedServices.keySet());
 
         result.put(
                 "receivedServices",
-                receivedServicesPerUser
+                receivedServices
         );
 
         return result;
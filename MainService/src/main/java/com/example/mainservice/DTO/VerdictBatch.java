@@ -0,0 +1,9 @@
+package com.example.mainservice.DTO;
+
+import java.util.List;
+
+// Paczka werdyktów na /app/recommendations.batch; SafeLogin odpowiada VerdictBatchAck z tym samym batchId
+public record VerdictBatch(
+        long batchId,
+        List<RecommendationEntry> items
+) {}
@@ -0,0 +1,7 @@
+package com.example.mainservice.DTO;
+
+// Odpowiedź SafeLogin na VerdictBatch – saved = liczba zapisanych rekomendacji
+public record VerdictBatchAck(
+        long batchId,
+        int saved
+) {}
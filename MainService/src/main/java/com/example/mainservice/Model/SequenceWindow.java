@@ -0,0 +1,44 @@
+package com.example.mainservice.Model;
+
+// Okno numerów sekwencji jednej satelity (anti-replay): najwyższy numer + bitmapa SIZE numerów poniżej.
+// seq 0 = bez numeracji, zawsze przyjmowany
+public final class SequenceWindow {
+
+    public static final int SIZE = Long.SIZE;
+
+    private long highest;
+
+    // bit i = numer (highest - i) już przyjęty
+    private long seen;
+
+    // true przy pierwszym wystąpieniu seq, false dla powtórki
+    public synchronized boolean accept(long seq) {
+        if (seq <= 0) {
+            return true;
+        }
+
+        if (seq > highest) {
+            long shift = seq - highest;
+            seen = shift >= SIZE ? 1 : (seen << shift) | 1;
+            highest = seq;
+            return true;
+        }
+
+        long behind = highest - seq;
+        if (behind >= SIZE) {
+            return false;
+        }
+
+        long bit = 1L << behind;
+        if ((seen & bit) != 0) {
+            return false;
+        }
+
+        seen |= bit;
+        return true;
+    }
+
+    public synchronized long highest() {
+        return highest;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.Config.AckMode;
+import com.example.mainservice.DTO.VoteAck;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Potwierdzenia głosów – tylko do sesji nadawcy, zamiast rozgłaszania na /topic/main-broadcast
+@Component
+public class AckPublisher {
+
+    public static final String ACK_DESTINATION = "/queue/ack";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final AckMode mode;
+
+    // sessionId -> niepotwierdzona jeszcze runda (tylko CUMULATIVE)
+    private final Map<String, PendingRound> pendingRounds = new ConcurrentHashMap<>();
+
+    // sessionId -> ramki w kolejności odbioru; skrzynki kończą je w dowolnej kolejności
+    private final Map<String, FrameOrder> frameOrders = new ConcurrentHashMap<>();
+
+    public AckPublisher(
+            SimpMessageSendingOperations messagingTemplate,
+            @Value("${mainservice.ack.mode:none}") String mode
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.mode = AckMode.of(mode);
+    }
+
+    public AckMode mode() {
+        return mode;
+    }
+
+    // Ramka odebrana (wątek inbound, kolejność sesji) – ACK za nią dopiero, gdy wcześniejsze też są przetworzone
+    public void frameReceived(SimpMessageHeaderAccessor inbound, long seq) {
+        String sessionId = inbound.getSessionId();
+
+        if (mode == AckMode.NONE || sessionId == null || seq <= 0) {
+            return;
+        }
+
+        frameOrders.computeIfAbsent(sessionId, id -> new FrameOrder()).received(seq);
+    }
+
+    // Pojedynczy głos (/app/vote, stare /app/from-service)
+    public void voteProcessed(SimpMessageHeaderAccessor inbound, int serviceId, long roundId, long seq) {
+
+        String sessionId = inbound.getSessionId();
+        MimeType contentType = inbound.getContentType();
+
+        if (mode == AckMode.NONE) {
+            return;
+        }
+
+        VoteAck processed = inOrder(sessionId, new VoteAck(serviceId, roundId, seq, 1));
+        if (processed == null) {
+            return;
+        }
+
+        switch (mode) {
+            case SESSION -> send(sessionId, contentType, processed);
+            case CUMULATIVE -> {
+                VoteAck previousRound = pendingRounds
+                        .computeIfAbsent(sessionId, id -> new PendingRound(serviceId))
+                        .add(processed.roundId(), processed.seq(), processed.votes());
+
+                if (previousRound != null) {
+                    send(sessionId, contentType, previousRound);
+                }
+            }
+        }
+    }
+
+    // Cała paczka /app/vote-batch – jeden ACK, powtórzona paczka z votes = 0
+    public void batchProcessed(SimpMessageHeaderAccessor inbound, int serviceId, long roundId, long seq, int votes) {
+
+        if (mode == AckMode.NONE) {
+            return;
+        }
+
+        String sessionId = inbound.getSessionId();
+        VoteAck processed = inOrder(sessionId, new VoteAck(serviceId, roundId, seq, votes));
+
+        if (processed != null) {
+            send(sessionId, inbound.getContentType(), processed);
+        }
+    }
+
+    // null = wcześniejsza ramka sesji jeszcze w skrzynce, ACK poczeka na nią
+    private VoteAck inOrder(String sessionId, VoteAck frame) {
+        FrameOrder order = sessionId == null ? null : frameOrders.get(sessionId);
+        return order == null ? frame : order.processed(frame);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        pendingRounds.remove(event.getSessionId());
+        frameOrders.remove(event.getSessionId());
+    }
+
+    private void send(String sessionId, MimeType contentType, VoteAck ack) {
+        if (sessionId == null) {
+            return;
+        }
+
+        messagingTemplate.convertAndSendToUser(
+                sessionId,
+                ACK_DESTINATION,
+                ack,
+                sessionHeaders(sessionId, contentType)
+        );
+    }
+
+    // satelity nie mają Principal – adresujemy po id sesji STOMP;
+    // ACK idzie w tym samym formacie (JSON/CBOR), w którym przyszedł głos
+    static MessageHeaders sessionHeaders(String sessionId, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor =
+                SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        if (contentType != null) {
+            accessor.setContentType(contentType);
+        }
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    // Ramki jednej sesji w kolejności odbioru; ACK obejmuje najdłuższy przetworzony początek
+    private static final class FrameOrder {
+
+        private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+
+        synchronized void received(long seq) {
+            frames.addLast(new Frame(seq));
+        }
+
+        synchronized VoteAck processed(VoteAck ack) {
+            Frame finished = null;
+            for (Frame frame : frames) {
+                if (frame.seq == ack.seq() && !frame.done) {
+                    finished = frame;
+                    break;
+                }
+            }
+
+            // ramka spoza kolejki (bez numeru albo sprzed frameReceived) – potwierdzana od razu
+            if (finished == null) {
+                return ack;
+            }
+
+            finished.done = true;
+            finished.serviceId = ack.serviceId();
+            finished.roundId = ack.roundId();
+            finished.votes = ack.votes();
+
+            Frame last = null;
+            int votes = 0;
+            while (!frames.isEmpty() && frames.peekFirst().done) {
+                last = frames.pollFirst();
+                votes += last.votes;
+            }
+
+            return last == null ? null : new VoteAck(last.serviceId, last.roundId, last.seq, votes);
+        }
+
+        private static final class Frame {
+
+            private final long seq;
+            private boolean done;
+            private int serviceId;
+            private long roundId;
+            private int votes;
+
+            Frame(long seq) {
+                this.seq = seq;
+            }
+        }
+    }
+
+    // Runda potwierdzana dla sesji – ACK wychodzi, gdy pojawi się nowsza runda
+    private static final class PendingRound {
+
+        private final int serviceId;
+        private long roundId = -1;
+        private long seq;
+        private int votes;
+
+        PendingRound(int serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        synchronized VoteAck add(long round, long frame, int count) {
+            VoteAck finished = null;
+
+            if (round > roundId) {
+                finished = drain();
+                roundId = round;
+            }
+
+            seq = Math.max(seq, frame);
+            votes += count;
+            return finished;
+        }
+
+        synchronized VoteAck drain() {
+            if (votes == 0) {
+                return null;
+            }
+
+            VoteAck ack = new VoteAck(serviceId, roundId, seq, votes);
+            votes = 0;
+            return ack;
+        }
+    }
+}
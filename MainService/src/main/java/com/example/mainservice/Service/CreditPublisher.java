@@ -0,0 +1,191 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.DTO.VoteCredit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Kredyty dla satelit (mainservice.flow.*) na /user/queue/credits – okno maleje z zaległościami inbound i skrzynek,
+// 0 powyżej max-backlog. Sesje bez subskrypcji nie są ograniczane
+@Component
+public class CreditPublisher {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(CreditPublisher.class);
+
+    public static final String CREDIT_DESTINATION = "/queue/credits";
+
+    private static final String SUBSCRIPTION = "/user" + CREDIT_DESTINATION;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final VoteMailboxes mailboxes;
+    private final Executor inbound;
+
+    private final boolean enabled;
+    private final int maxWindow;
+    private final int maxBacklog;
+
+    // sessionId -> kredyty wydane, a jeszcze niewykorzystane
+    private final Map<String, SessionCredits> sessions = new ConcurrentHashMap<>();
+
+    public CreditPublisher(
+            SimpMessageSendingOperations messagingTemplate,
+            VoteMailboxes mailboxes,
+            @Qualifier("clientInboundChannelExecutor") Executor inbound,
+            @Value("${mainservice.flow.enabled:true}") boolean enabled,
+            @Value("${mainservice.flow.max-window:16}") int maxWindow,
+            @Value("${mainservice.flow.max-backlog:2000}") int maxBacklog
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.mailboxes = mailboxes;
+        this.inbound = inbound;
+        this.enabled = enabled;
+        this.maxWindow = Math.max(1, maxWindow);
+        this.maxBacklog = Math.max(1, maxBacklog);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+
+        if (!SUBSCRIPTION.equals(headers.getDestination()) || headers.getSessionId() == null) {
+            return;
+        }
+
+        // content-type z SUBSCRIBE – kredyty w tym samym formacie co głosy sesji
+        if (!enabled) {
+            send(headers.getSessionId(), headers.getContentType(), VoteCredit.UNLIMITED);
+            return;
+        }
+
+        SessionCredits credits = new SessionCredits(headers.getContentType());
+        sessions.put(headers.getSessionId(), credits);
+
+        // satelita po połączeniu czeka na tę odpowiedź – wychodzi zawsze, także z 0 przy przeciążeniu
+        send(headers.getSessionId(), credits.contentType, credits.topUp(window()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    // Przyszła ramka – zużyła jeden kredyt sesji
+    public void frameReceived(SimpMessageHeaderAccessor inbound) {
+        SessionCredits credits = credits(inbound);
+        if (credits != null) {
+            credits.used();
+        }
+    }
+
+    // Ramka przetworzona – sesja może dostać kredyty z powrotem
+    public void frameProcessed(SimpMessageHeaderAccessor inbound) {
+        SessionCredits credits = credits(inbound);
+        if (credits != null) {
+            topUp(inbound.getSessionId(), credits);
+        }
+    }
+
+    // po przeciążeniu nikt nie kończy ramek – kredyty wracają stąd
+    @Scheduled(fixedDelayString = "${mainservice.flow.pump-interval-ms:200}")
+    public void pump() {
+        sessions.forEach(this::topUp);
+    }
+
+    // Dozwolona liczba ramek w locie na sesję w tej chwili
+    public int window() {
+        int backlog = backlog();
+
+        if (backlog >= maxBacklog) {
+            return 0;
+        }
+
+        return Math.max(1, (int) ((long) maxWindow * (maxBacklog - backlog) / maxBacklog));
+    }
+
+    public int backlog() {
+        int queued = mailboxes.queuedCount();
+
+        if (inbound instanceof ThreadPoolTaskExecutor pool) {
+            queued += pool.getThreadPoolExecutor().getQueue().size();
+        }
+
+        return queued;
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    private SessionCredits credits(SimpMessageHeaderAccessor inbound) {
+        String sessionId = inbound.getSessionId();
+        return sessionId == null ? null : sessions.get(sessionId);
+    }
+
+    private void topUp(String sessionId, SessionCredits credits) {
+        int granted = credits.topUp(window());
+
+        if (granted == 0) {
+            return;
+        }
+
+        send(sessionId, credits.contentType, granted);
+    }
+
+    private void send(String sessionId, MimeType contentType, int credits) {
+        logger.debug("Session {} → {} credits", sessionId, credits);
+
+        messagingTemplate.convertAndSendToUser(
+                sessionId,
+                CREDIT_DESTINATION,
+                new VoteCredit(credits),
+                AckPublisher.sessionHeaders(sessionId, contentType)
+        );
+    }
+
+    // Kredyty jednej sesji; ramka ponad przydział nie schodzi poniżej zera – inaczej następny przydział przekroczyłby okno
+    private static final class SessionCredits {
+
+        private final MimeType contentType;
+        private int outstanding;
+
+        SessionCredits(MimeType contentType) {
+            this.contentType = contentType;
+        }
+
+        synchronized void used() {
+            if (outstanding > 0) {
+                outstanding--;
+            }
+        }
+
+        // dokładamy dopiero, gdy zużyta jest co najmniej połowa okna – mniej ramek kredytowych
+        synchronized int topUp(int window) {
+            if (outstanding > window / 2) {
+                return 0;
+            }
+
+            int grant = window - outstanding;
+            if (grant <= 0) {
+                return 0;
+            }
+
+            outstanding += grant;
+            return grant;
+        }
+    }
+}
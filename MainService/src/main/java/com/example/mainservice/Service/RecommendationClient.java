@@ -1,14 +1,18 @@
 package com.example.mainservice.Service;
 
-import org.springframework.stereotype.Component;
+import com.example.mainservice.DTO.RecommendationEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.List;
+
+// Zapis werdyktów w SafeLogin – przez VerdictLink, POST /recommendations/batch tylko gdy połączenie leży
 @Component
 public class RecommendationClient {
     private static final Logger logger =
@@ -16,34 +20,75 @@ public class RecommendationClient {
 
     private static final String SERVICE_KEY = "SUPER_SECRET_SERVICE_KEY_123";
 
-    private static final String BASE_URL =
-            "http://localhost:8080/recommendations/user/";
+    private static final String BATCH_URL =
+            "http://localhost:8080/recommendations/batch";
 
     private final HttpClient httpClient = HttpClient.newHttpClient();
 
-    public void saveRecommendation(Integer userId, String category) {
+    private final JsonMapper jsonMapper;
+    private final VotingMetrics metrics;
+    private final VerdictLink link;
+
+    public RecommendationClient(JsonMapper jsonMapper, VotingMetrics metrics, VerdictLink link) {
+        this.jsonMapper = jsonMapper;
+        this.metrics = metrics;
+        this.link = link;
+    }
+
+    // Jedna ramka STOMP (albo jeden POST) na paczkę; blokuje – tylko wątek flush VerdictWriter.
+    // batchId jest ten sam przy ponowieniu – SafeLogin nie zapisze paczki drugi raz
+    public boolean saveRecommendations(long batchId, List<RecommendationEntry> entries) {
+
+        long started = System.nanoTime();
+        boolean saved = false;
 
         try {
-            URI uri = URI.create(
-                    BASE_URL + userId + "?category=" + category
-            );
+            if (link.isConnected()) {
+                int count = link.save(batchId, entries);
+
+                // brak potwierdzenia = nie wiadomo, czy zapisano – VerdictWriter ponowi całą paczkę
+                saved = count >= 0;
+                if (saved) {
+                    logger.info("Recommendations saved over STOMP → batch #{} of {}, saved={}", batchId, entries.size(), count);
+                } else {
+                    logger.warn("Recommendations not confirmed over STOMP → batch #{} of {} will be retried", batchId, entries.size());
+                }
+                return saved;
+            }
 
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(uri)
+                    .uri(URI.create(BATCH_URL))
                     .header("X-SERVICE-KEY", SERVICE_KEY)
-                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .header("X-Batch-Id", Long.toString(batchId))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            jsonMapper.writeValueAsBytes(entries)
+                    ))
                     .build();
 
             HttpResponse<String> response =
                     httpClient.send(request, HttpResponse.BodyHandlers.ofString());
 
-            logger.info(
-                    "Recommendation saved → user={}, category={}, status={}",
-                    userId, category, response.statusCode()
-            );
+            saved = response.statusCode() / 100 == 2;
+            if (saved) {
+                logger.info("Recommendations saved → batch #{} of {}, saved={}", batchId, entries.size(), response.body());
+            } else {
+                logger.warn(
+                        "Recommendations not saved → batch #{} of {}, status={} – will be retried",
+                        batchId, entries.size(), response.statusCode()
+                );
+            }
+            return saved;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while saving recommendations", e);
+            return false;
         } catch (Exception e) {
-            logger.error("Failed to save recommendation", e);
+            logger.error("Failed to save recommendations", e);
+            return false;
+        } finally {
+            metrics.recommendationCall(System.nanoTime() - started, saved);
         }
     }
 }
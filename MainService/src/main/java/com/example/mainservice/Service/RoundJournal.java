@@ -0,0 +1,445 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.Model.Category;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Dziennik rund (WAL), mainservice.journal.enabled – rekordy po 40 bajtów w pliku mapowanym w pamięć.
+// Checkpoint zapisuje snapshot otwartych rund i zaczyna nową generację; stałe głosy idą do nowego dziennika
+@Component
+public class RoundJournal implements RoundStore.Journal {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(RoundJournal.class);
+
+    // wersja 2: rekordy i snapshot niosą epokę rundy
+    private static final long JOURNAL_MAGIC = 0x524E444A524E4C32L; // "RNDJRNL2"
+    private static final long SNAPSHOT_MAGIC = 0x524E44534E415032L; // "RNDSNAP2"
+
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 40;
+
+    // typ jest zapisywany jako ostatni – 0 oznacza koniec dziennika
+    private static final byte END = 0;
+    private static final byte VOTE = 1;
+    private static final byte CLOSE = 2;
+    private static final byte STANDING = 3;
+
+    private static final String SNAPSHOT_FILE = "rounds.snapshot";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("rounds-(\\d+)\\.journal");
+
+    private final RoundStore roundStore;
+    private final boolean enabled;
+    private final Path directory;
+    private final int initialSize;
+
+    private final Object checkpointLock = new Object();
+    private long generation;
+
+    // stan bieżącego pliku – chroniony monitorem this
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    public RoundJournal(
+            RoundStore roundStore,
+            @Value("${mainservice.journal.enabled:false}") boolean enabled,
+            @Value("${mainservice.journal.dir:journal}") String directory,
+            @Value("${mainservice.journal.initial-size-mb:16}") int initialSizeMb
+    ) {
+        this.roundStore = roundStore;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.initialSize = Math.max(1, initialSizeMb) << 20;
+    }
+
+    /* ============================================================
+       ======================= LIFECYCLE ==========================
+       ============================================================ */
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+
+        long started = System.currentTimeMillis();
+        int rounds = recover();
+
+        logger.info(
+                "JOURNAL RECOVERED → {} open rounds in {} ms (generation {})",
+                rounds,
+                System.currentTimeMillis() - started,
+                generation
+        );
+
+        checkpoint();
+        roundStore.attachJournal(this);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+
+        roundStore.attachJournal(null);
+        checkpoint();
+
+        synchronized (this) {
+            closeChannel();
+        }
+    }
+
+    /* ============================================================
+       ======================== APPEND ============================
+       ============================================================ */
+
+    @Override
+    public void voted(int userId, long epoch, int serviceBit, int categoryMask, double weight, long timestampMillis) {
+        append(VOTE, userId, epoch, serviceBit, categoryMask, weight, timestampMillis);
+    }
+
+    @Override
+    public void closed(int userId, long epoch, int verdict, long timestampMillis) {
+        append(CLOSE, userId, epoch, 0, verdict, 0, timestampMillis);
+    }
+
+    @Override
+    public void standing(long epoch, int serviceBit, int categoryMask, double weight, long timestampMillis) {
+        append(STANDING, 0, epoch, serviceBit, categoryMask, weight, timestampMillis);
+    }
+
+    private synchronized void append(
+            byte type,
+            int userId,
+            long epoch,
+            int serviceBit,
+            int value,
+            double weight,
+            long timestampMillis
+    ) {
+        if (buffer == null) {
+            return;
+        }
+
+        if (position + RECORD_SIZE > buffer.capacity() && !grow()) {
+            return;
+        }
+
+        buffer.putInt(position + 4, userId);
+        buffer.putInt(position + 8, serviceBit);
+        buffer.putInt(position + 12, value);
+        buffer.putDouble(position + 16, weight);
+        buffer.putLong(position + 24, timestampMillis);
+        buffer.putLong(position + 32, epoch);
+        buffer.put(position, type);
+
+        position += RECORD_SIZE;
+    }
+
+    private boolean grow() {
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) buffer.capacity() * 2);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            // bez dziennika serwis działa dalej, tylko bez odtwarzania po restarcie
+            logger.error("JOURNAL FULL → journaling disabled until next checkpoint", e);
+            buffer = null;
+            return false;
+        }
+    }
+
+    /* ============================================================
+       ====================== CHECKPOINT ==========================
+       ============================================================ */
+
+    // Snapshot otwartych rund + nowa generacja dziennika; starsze pliki usuwane po zapisie
+    @Scheduled(fixedDelayString = "${mainservice.journal.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (checkpointLock) {
+            long next = generation + 1;
+
+            // plik tworzony i mapowany przed blokadami RoundStore – pod nimi tylko podmiana referencji
+            JournalFile nextFile;
+            try {
+                nextFile = openJournal(next);
+            } catch (IOException e) {
+                logger.error("JOURNAL CHECKPOINT FAILED → cannot open generation {}", next, e);
+                return;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream dump = new DataOutputStream(bytes);
+            int[] count = {0};
+            JournalFile[] previous = {null};
+
+            roundStore.checkpoint(
+                    (userId, epoch, mask, openedAt, reportedWeight, weights, offset) -> {
+                        try {
+                            dump.writeInt(userId);
+                            dump.writeLong(epoch);
+                            dump.writeInt(mask);
+                            dump.writeLong(openedAt);
+                            dump.writeDouble(reportedWeight);
+                            for (int c = 0; c < Category.COUNT; c++) {
+                                dump.writeDouble(weights[offset + c]);
+                            }
+                            count[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    () -> {
+                        previous[0] = switchJournal(nextFile);
+                        // stałe głosy nie trafiają do snapshotu – zaczynają nowy dziennik
+                        roundStore.visitStanding(this::standing);
+                    }
+            );
+
+            // od tej chwili dopisujemy do dziennika "next" – nigdy go nie nadpisujemy
+            generation = next;
+            release(previous[0]);
+
+            try {
+                writeSnapshot(next, count[0], bytes.toByteArray());
+                deleteJournalsBefore(next);
+
+                logger.debug("JOURNAL CHECKPOINT → {} open rounds, generation {}", count[0], next);
+
+            } catch (IOException e) {
+                // stare dzienniki zostają – odtworzenie nadal jest kompletne
+                logger.error("JOURNAL CHECKPOINT FAILED → snapshot not written", e);
+            }
+        }
+    }
+
+    private record JournalFile(FileChannel channel, MappedByteBuffer buffer) {}
+
+    private JournalFile openJournal(long next) throws IOException {
+        FileChannel nextChannel = FileChannel.open(
+                journalPath(next),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+
+        try {
+            MappedByteBuffer nextBuffer =
+                    nextChannel.map(FileChannel.MapMode.READ_WRITE, 0, initialSize);
+            nextBuffer.putLong(0, JOURNAL_MAGIC);
+            nextBuffer.putLong(8, next);
+            return new JournalFile(nextChannel, nextBuffer);
+        } catch (IOException e) {
+            nextChannel.close();
+            throw e;
+        }
+    }
+
+    // Podmiana bieżącego pliku; stary (force + close) zamyka wołający, już bez blokad
+    private synchronized JournalFile switchJournal(JournalFile next) {
+        JournalFile previous = new JournalFile(channel, buffer);
+
+        channel = next.channel();
+        buffer = next.buffer();
+        position = HEADER_SIZE;
+
+        return previous;
+    }
+
+    private void release(JournalFile file) {
+        if (file.buffer() != null) {
+            file.buffer().force();
+        }
+
+        if (file.channel() != null) {
+            try {
+                file.channel().close();
+            } catch (IOException e) {
+                logger.warn("Cannot close journal file", e);
+            }
+        }
+    }
+
+    private void closeChannel() {
+        release(new JournalFile(channel, buffer));
+        buffer = null;
+        channel = null;
+    }
+
+    private void writeSnapshot(long snapshotGeneration, int count, byte[] rounds) throws IOException {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+
+            out.writeLong(SNAPSHOT_MAGIC);
+            out.writeLong(snapshotGeneration);
+            out.writeInt(count);
+            out.write(rounds);
+            out.flush();
+            file.getFD().sync();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteJournalsBefore(long keepFrom) throws IOException {
+        for (long journalGeneration : journalGenerations()) {
+            if (journalGeneration < keepFrom) {
+                Files.deleteIfExists(journalPath(journalGeneration));
+            }
+        }
+    }
+
+    /* ============================================================
+       ======================= RECOVERY ===========================
+       ============================================================ */
+
+    private int recover() throws IOException {
+        long snapshotGeneration = readSnapshot();
+        generation = snapshotGeneration;
+
+        for (long journalGeneration : journalGenerations()) {
+            if (journalGeneration < snapshotGeneration) {
+                continue;
+            }
+
+            replay(journalPath(journalGeneration), journalGeneration);
+            generation = journalGeneration;
+        }
+
+        return roundStore.size();
+    }
+
+    // Generacja snapshotu, 0 gdy go nie ma
+    private long readSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot)))) {
+
+            if (in.readLong() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a round snapshot: " + snapshot);
+            }
+
+            long snapshotGeneration = in.readLong();
+            int count = in.readInt();
+            double[] weights = new double[Category.COUNT];
+
+            for (int i = 0; i < count; i++) {
+                int userId = in.readInt();
+                long epoch = in.readLong();
+                int mask = in.readInt();
+                long openedAt = in.readLong();
+                double reportedWeight = in.readDouble();
+                for (int c = 0; c < Category.COUNT; c++) {
+                    weights[c] = in.readDouble();
+                }
+
+                roundStore.restore(userId, epoch, mask, openedAt, reportedWeight, weights, 0);
+            }
+
+            return snapshotGeneration;
+        }
+    }
+
+    private void replay(Path path, long expectedGeneration) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            if (file.size() < HEADER_SIZE) {
+                return;
+            }
+
+            MappedByteBuffer in = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+
+            if (in.getLong(0) != JOURNAL_MAGIC || in.getLong(8) != expectedGeneration) {
+                logger.warn("Skipping foreign journal file {}", path);
+                return;
+            }
+
+            int records = 0;
+
+            for (int at = HEADER_SIZE; at + RECORD_SIZE <= in.capacity(); at += RECORD_SIZE) {
+                byte type = in.get(at);
+                if (type == END) {
+                    break;
+                }
+
+                int userId = in.getInt(at + 4);
+                long epoch = in.getLong(at + 32);
+
+                if (type == VOTE) {
+                    roundStore.replayVote(
+                            userId,
+                            epoch,
+                            in.getInt(at + 8),
+                            in.getInt(at + 12),
+                            in.getDouble(at + 16),
+                            in.getLong(at + 24)
+                    );
+                } else if (type == CLOSE) {
+                    roundStore.replayClose(userId, epoch, in.getLong(at + 24));
+                } else if (type == STANDING) {
+                    roundStore.replayStanding(
+                            epoch,
+                            in.getInt(at + 8),
+                            in.getInt(at + 12),
+                            in.getDouble(at + 16),
+                            in.getLong(at + 24)
+                    );
+                }
+
+                records++;
+            }
+
+            logger.info("Replayed {} journal records from {}", records, path.getFileName());
+        }
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "rounds-*.journal")) {
+            for (Path file : files) {
+                Matcher matcher = JOURNAL_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path journalPath(long journalGeneration) {
+        return directory.resolve("rounds-" + journalGeneration + ".journal");
+    }
+}
@@ -0,0 +1,1050 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Model.Satellites;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stan rund głosowania w prymitywnych tablicach, segmenty po userId z własną blokadą.
+// Runda = (userId, epoka); głos serwisu, który już zagłosował w tej epoce, to DUPLICATE.
+@Component
+public class RoundStore {
+
+    // Brak pewnego zwycięzcy – kontroler zapisuje wtedy OTHER.
+    public static final int NO_VERDICT = -1;
+
+    // Runda nie istnieje (już zamknięta albo nigdy nie otwarta).
+    public static final int NO_ROUND = -2;
+
+    // Głos odrzucony – ten serwis już zagłosował w tej rundzie (epoce).
+    public static final int DUPLICATE = -4;
+
+    // Głos odrzucony – runda została już zamknięta bez niego.
+    public static final int LATE = -3;
+
+    // Bit w wyniku vote(): brakujące głosy nie zmienią już werdyktu
+    public static final int DECIDED = 1 << 29;
+
+    // zamknięta runda (tombstone) – bit w masks[], nigdy nie wychodzi na zewnątrz
+    private static final int CLOSED = 1 << 30;
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(RoundStore.class);
+
+    private static final int ALL_SERVICES = Satellites.ALL_MASK;
+
+    private static final double EPSILON = 0.15;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentShift;
+
+    // opcjonalny dziennik zmian (RoundJournal), wołany pod blokadą segmentu
+    private volatile Journal journal;
+
+    // górna granica wagi głosu każdego serwisu; null = czekamy na komplet
+    private volatile double[] serviceWeights;
+
+    // serwisy, których głosy już przycięto do granicy (bit = serwis)
+    private final AtomicInteger clampedServices = new AtomicInteger();
+
+    // głosy "dla wszystkich" – czytane przy otwarciu każdej rundy, zmieniane raz na tick (kopia przy zapisie)
+    private volatile Standing[] standing = new Standing[0];
+
+    public RoundStore(
+            @Value("${mainservice.rounds.segments:16}") int segments,
+            @Value("${mainservice.rounds.initial-capacity:1024}") int initialCapacity
+    ) {
+        int count = powerOfTwo(Math.max(1, segments));
+
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+
+        int perSegment = powerOfTwo(Math.max(8, initialCapacity / count));
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(perSegment);
+        }
+    }
+
+    // waga każdego serwisu w kolejności Satellites.NAMES ("2.0,0.5,..."); puste = bez wczesnego zamykania.
+    // Głos cięższy niż jego granica liczy się z wagą granicy – decided() zakłada, że brakujące głosy jej nie przekroczą
+    @Value("${mainservice.rounds.service-weights:}")
+    public void setServiceWeights(String weights) {
+        if (weights == null || weights.isBlank()) {
+            serviceWeights = null;
+            return;
+        }
+
+        String[] parts = weights.split(",");
+        double[] bounds = new double[Satellites.NAMES.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = i < parts.length ? Double.parseDouble(parts[i].trim()) : Double.POSITIVE_INFINITY;
+        }
+        serviceWeights = bounds;
+    }
+
+    /* ============================================================
+       ========================= API ==============================
+       ============================================================ */
+
+    // Kilka bitów w masce (Service7: "A,B") dzieli wagę po równo, maska 0 tylko oznacza serwis
+    public int vote(int userId, long epoch, int serviceIndex, int categoryMask, double weight) {
+        return segmentFor(userId).vote(
+                userId,
+                epoch,
+                1 << serviceIndex,
+                categoryMask,
+                weight,
+                System.currentTimeMillis()
+        );
+    }
+
+    // Paczka głosów jednego serwisu – każda blokada segmentu brana najwyżej raz
+    public void voteBatch(
+            int serviceIndex,
+            long epoch,
+            double weight,
+            int[] userIds,
+            int[] categoryMasks,
+            int count,
+            int[] reported
+    ) {
+        int[] segmentOf = new int[count];
+        int[] start = new int[segments.length + 1];
+
+        for (int i = 0; i < count; i++) {
+            segmentOf[i] = segmentIndex(userIds[i]);
+            start[segmentOf[i] + 1]++;
+        }
+
+        for (int s = 0; s < segments.length; s++) {
+            start[s + 1] += start[s];
+        }
+
+        // counting sort – indeksy głosów ułożone segment po segmencie
+        int[] order = new int[count];
+        int[] next = Arrays.copyOf(start, segments.length);
+        for (int i = 0; i < count; i++) {
+            order[next[segmentOf[i]]++] = i;
+        }
+
+        int serviceBit = 1 << serviceIndex;
+        long now = System.currentTimeMillis();
+
+        for (int s = 0; s < segments.length; s++) {
+            if (start[s] < start[s + 1]) {
+                segments[s].voteAll(
+                        order, start[s], start[s + 1],
+                        userIds, categoryMasks,
+                        epoch, serviceBit, weight, now,
+                        reported
+                );
+            }
+        }
+    }
+
+    // Głos wspólny dla całej epoki: trafia do otwartych rund i zostaje dla rund otwartych później
+    public int voteBroadcast(int serviceIndex, long epoch, int categoryMask, double weight, RoundVisitor reached) {
+        if (!standingVote(serviceIndex, epoch, categoryMask, weight)) {
+            return DUPLICATE;
+        }
+
+        int landed = 0;
+        for (int segment = 0; segment < segments.length; segment++) {
+            landed += voteOpen(segment, serviceIndex, epoch, categoryMask, weight, reached);
+        }
+        return landed;
+    }
+
+    // pierwsza połowa broadcastu: stały głos dla rund otwartych później; false = serwis już rozgłosił w tej epoce
+    public boolean standingVote(int serviceIndex, long epoch, int categoryMask, double weight) {
+        Standing vote = new Standing(epoch, 1 << serviceIndex, categoryMask, weight, System.currentTimeMillis());
+        return addStanding(vote, journal);
+    }
+
+    // Odtworzenie stałego głosu z dziennika
+    public void replayStanding(long epoch, int serviceBit, int categoryMask, double weight, long timestampMillis) {
+        addStanding(new Standing(epoch, serviceBit, categoryMask, weight, timestampMillis), null);
+    }
+
+    // dziennik pod tym samym monitorem – checkpoint przepisuje do nowego pliku wszystko, co już jest w tablicy
+    private synchronized boolean addStanding(Standing vote, Journal target) {
+        for (Standing existing : standing) {
+            if (existing.epoch() == vote.epoch() && existing.serviceBit() == vote.serviceBit()) {
+                return false;
+            }
+        }
+
+        // najpierw stały głos – runda otwarta przed voteOpen() dostanie go sama
+        Standing[] added = Arrays.copyOf(standing, standing.length + 1);
+        added[standing.length] = vote;
+        standing = added;
+
+        if (target != null) {
+            target.standing(vote.epoch(), vote.serviceBit(), vote.categoryMask(), vote.weight(), vote.arrivedAtMillis());
+        }
+        return true;
+    }
+
+    // druga połowa: otwarte rundy epoki w jednym segmencie – z pasa, do którego segment należy
+    public int voteOpen(int segment, int serviceIndex, long epoch, int categoryMask, double weight, RoundVisitor reached) {
+        Reached landed = new Reached();
+        segments[segment].voteOpen(epoch, 1 << serviceIndex, categoryMask, weight, System.currentTimeMillis(), landed);
+
+        for (int i = 0; i < landed.size; i++) {
+            reached.visit(landed.userIds[i], epoch, landed.reported[i]);
+        }
+        return landed.size;
+    }
+
+    private record Standing(long epoch, int serviceBit, int categoryMask, double weight, long arrivedAtMillis) {}
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    // Segment, w którym leży runda użytkownika
+    public int segmentIndex(int userId) {
+        return ((userId * 0x9E3779B9) >>> segmentShift) & segmentMask;
+    }
+
+    // Zamyka rundę; niepełna zostawia tombstone, który odrzuca spóźnione głosy
+    public int commit(int userId, long epoch) {
+        Closed closed = close(userId, epoch);
+        return closed == null ? NO_ROUND : closed.verdict();
+    }
+
+    // Jak commit(), ale zwraca też czas pierwszego i ostatniego głosu
+    public Closed close(int userId, long epoch) {
+        return segmentFor(userId).commit(userId, epoch);
+    }
+
+    public record Closed(int verdict, long openedAtMillis, long lastVoteAtMillis) {}
+
+    // Jak commit(), ale bez zamykania rundy
+    public int peekVerdict(int userId, long epoch) {
+        return segmentFor(userId).peek(userId, epoch);
+    }
+
+    // Maska serwisów, które zagłosowały; 0 gdy brak rundy
+    public int reportedMask(int userId, long epoch) {
+        return segmentFor(userId).reportedMask(userId, epoch);
+    }
+
+    // Zamyka rundy starsze niż cutoff, handler wołany po zwolnieniu blokady
+    public int expire(long cutoffMillis, ExpiredRoundHandler handler) {
+        dropStandingBefore(cutoffMillis);
+
+        ExpiredRounds expired = new ExpiredRounds();
+
+        for (Segment segment : segments) {
+            segment.expire(cutoffMillis, expired);
+        }
+
+        for (int i = 0; i < expired.size; i++) {
+            handler.expired(
+                    expired.userIds[i],
+                    expired.epochs[i],
+                    expired.masks[i],
+                    expired.reportedWeights[i],
+                    expired.verdicts[i],
+                    expired.openedAt[i],
+                    expired.lastVoteAt[i]
+            );
+        }
+
+        return expired.size;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void forEach(RoundVisitor visitor) {
+        for (Segment segment : segments) {
+            segment.forEach(visitor);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RoundVisitor {
+        void visit(int userId, long epoch, int reportedMask);
+    }
+
+    /* ============================================================
+       ================= JOURNAL / RECOVERY =======================
+       ============================================================ */
+
+    // Wołany pod blokadą segmentu – kolejność w dzienniku zgodna z kolejnością zmian
+    public interface Journal {
+
+        void voted(int userId, long epoch, int serviceBit, int categoryMask, double weight, long timestampMillis);
+
+        void closed(int userId, long epoch, int verdict, long timestampMillis);
+
+        void standing(long epoch, int serviceBit, int categoryMask, double weight, long timestampMillis);
+    }
+
+    @FunctionalInterface
+    public interface StandingVisitor {
+        void visit(long epoch, int serviceBit, int categoryMask, double weight, long arrivedAtMillis);
+    }
+
+    @FunctionalInterface
+    public interface SlotVisitor {
+        void visit(
+                int userId,
+                long epoch,
+                int reportedMask,
+                long openedAtMillis,
+                double reportedWeight,
+                double[] weights,
+                int offset
+        );
+    }
+
+    public void attachJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    // stałe głosy nie mają slotu – dziennik przepisuje je przy checkpoincie
+    public void visitStanding(StandingVisitor visitor) {
+        for (Standing vote : standing) {
+            visitor.visit(vote.epoch(), vote.serviceBit(), vote.categoryMask(), vote.weight(), vote.arrivedAtMillis());
+        }
+    }
+
+    // Pod blokadami tylko kopia tablic i whileLocked (przełączenie pliku dziennika);
+    // visitor przegląda kopie już po zwolnieniu blokad, głosy nie czekają na kodowanie snapshotu
+    public void checkpoint(SlotVisitor visitor, Runnable whileLocked) {
+        SegmentCopy[] copies = new SegmentCopy[segments.length];
+        lockAndCopy(0, copies, whileLocked);
+
+        for (SegmentCopy copy : copies) {
+            copy.visit(visitor);
+        }
+    }
+
+    // segment zostaje zablokowany od kopii do przełączenia – kopia = stan w chwili przełączenia
+    private void lockAndCopy(int index, SegmentCopy[] copies, Runnable whileLocked) {
+        if (index == segments.length) {
+            whileLocked.run();
+            return;
+        }
+
+        synchronized (segments[index]) {
+            copies[index] = segments[index].copy();
+            lockAndCopy(index + 1, copies, whileLocked);
+        }
+    }
+
+    private record SegmentCopy(
+            int[] keys,
+            long[] epochs,
+            int[] masks,
+            long[] openedAt,
+            double[] reportedWeight,
+            double[] weights
+    ) {
+        void visit(SlotVisitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (masks[slot] != 0) {
+                    visitor.visit(
+                            keys[slot],
+                            epochs[slot],
+                            masks[slot],
+                            openedAt[slot],
+                            reportedWeight[slot],
+                            weights,
+                            slot * Category.COUNT
+                    );
+                }
+            }
+        }
+    }
+
+    // Odtworzenie rundy ze snapshotu
+    public void restore(
+            int userId,
+            long epoch,
+            int reportedMask,
+            long openedAtMillis,
+            double reportedWeight,
+            double[] weights,
+            int offset
+    ) {
+        segmentFor(userId).restore(userId, epoch, reportedMask, openedAtMillis, reportedWeight, weights, offset);
+    }
+
+    // Odtworzenie głosu z dziennika (bez ponownego zapisu)
+    public void replayVote(int userId, long epoch, int serviceBit, int categoryMask, double weight, long timestampMillis) {
+        segmentFor(userId).replay(userId, epoch, serviceBit, categoryMask, weight, timestampMillis);
+    }
+
+    // Odtworzenie commitu / wygaśnięcia z dziennika
+    public void replayClose(int userId, long epoch, long timestampMillis) {
+        segmentFor(userId).discard(userId, epoch, timestampMillis);
+    }
+
+    @FunctionalInterface
+    public interface ExpiredRoundHandler {
+        void expired(
+                int userId,
+                long epoch,
+                int reportedMask,
+                double reportedWeight,
+                int verdict,
+                long openedAtMillis,
+                long lastVoteAtMillis
+        );
+    }
+
+    /* ============================================================
+       ====================== VERDICT =============================
+       ============================================================ */
+
+    // Werdykt przesądzony: top - second - R >= EPSILON * (total + R), R = brakująca waga
+    static boolean decided(double[] weights, int offset, int reportedMask, double[] bounds) {
+
+        double remaining = 0;
+        for (int s = 0; s < bounds.length; s++) {
+            if ((reportedMask & (1 << s)) == 0) {
+                remaining += bounds[s];
+            }
+        }
+
+        double top = 0;
+        double second = 0;
+        double total = 0;
+
+        for (int c = 0; c < Category.COUNT; c++) {
+            double w = weights[offset + c];
+            total += w;
+
+            if (w > top) {
+                second = top;
+                top = w;
+            } else if (w > second) {
+                second = w;
+            }
+        }
+
+        return top > 0 && top - second - remaining >= EPSILON * (total + remaining);
+    }
+
+    // Wygrywa kategoria z przewagą co najmniej EPSILON całkowitej wagi
+    static int verdict(double[] weights, int offset) {
+
+        int top = -1;
+        int second = -1;
+        int nonZero = 0;
+        double total = 0;
+
+        for (int c = 0; c < Category.COUNT; c++) {
+            double w = weights[offset + c];
+            if (w <= 0) {
+                continue;
+            }
+
+            nonZero++;
+            total += w;
+
+            if (top < 0 || w > weights[offset + top]) {
+                second = top;
+                top = c;
+            } else if (second < 0 || w > weights[offset + second]) {
+                second = c;
+            }
+        }
+
+        if (nonZero == 0) {
+            return NO_VERDICT;
+        }
+
+        if (nonZero == 1) {
+            return top;
+        }
+
+        double relativeDiff =
+                (weights[offset + top] - weights[offset + second]) / total;
+
+        return relativeDiff < EPSILON ? NO_VERDICT : top;
+    }
+
+    /* ============================================================
+       ====================== SEGMENT =============================
+       ============================================================ */
+
+    // satelita z satellite.weight ponad granicą – przycięty, ostrzeżenie raz na serwis
+    private double clamp(double[] bounds, int serviceBit, double weight) {
+        int service = Integer.numberOfTrailingZeros(serviceBit);
+        if (bounds == null || service >= bounds.length || weight <= bounds[service]) {
+            return weight;
+        }
+
+        if ((clampedServices.getAndUpdate(mask -> mask | serviceBit) & serviceBit) == 0) {
+            logger.warn(
+                    "{} votes with weight {} above its bound {} (mainservice.rounds.service-weights) – counted as {}",
+                    Satellites.NAMES.get(service),
+                    weight,
+                    bounds[service],
+                    bounds[service]
+            );
+        }
+        return bounds[service];
+    }
+
+    // stały głos żyje tyle, co runda – potem nikt już nie otwiera rund jego epoki
+    private synchronized void dropStandingBefore(long cutoffMillis) {
+        Standing[] current = standing;
+        int kept = 0;
+
+        for (Standing vote : current) {
+            if (vote.arrivedAtMillis() >= cutoffMillis) {
+                kept++;
+            }
+        }
+
+        if (kept == current.length) {
+            return;
+        }
+
+        Standing[] remaining = new Standing[kept];
+        int i = 0;
+        for (Standing vote : current) {
+            if (vote.arrivedAtMillis() >= cutoffMillis) {
+                remaining[i++] = vote;
+            }
+        }
+        standing = remaining;
+    }
+
+    // górne bity hasha wybierają segment, dolne – slot w segmencie
+    private Segment segmentFor(int userId) {
+        return segments[segmentIndex(userId)];
+    }
+
+    // epoka wchodzi tylko do hasha slotu – segment zależy od samego userId
+    private static int mix(int userId, long epoch) {
+        int h = (userId + (int) epoch * 0x85EBCA6B) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    // Linear probing z backward-shift; slot wolny gdy maska == 0
+    private final class Segment {
+
+        private int[] keys;
+        private long[] epochs;
+        private int[] masks;
+        private long[] openedAt;
+        private long[] lastVoteAt;
+        private double[] reportedWeight;
+        private double[] weights;
+        private int size;       // zajęte sloty, razem z tombstone'ami
+        private int tombstones;
+
+        Segment(int capacity) {
+            allocate(capacity);
+        }
+
+        synchronized int vote(
+                int userId,
+                long epoch,
+                int serviceBit,
+                int categoryMask,
+                double weight,
+                long now
+        ) {
+            return record(userId, epoch, serviceBit, categoryMask, weight, now);
+        }
+
+        synchronized void voteAll(
+                int[] order,
+                int from,
+                int to,
+                int[] userIds,
+                int[] categoryMasks,
+                long epoch,
+                int serviceBit,
+                double weight,
+                long now,
+                int[] reported
+        ) {
+            for (int k = from; k < to; k++) {
+                int i = order[k];
+                reported[i] = record(userIds[i], epoch, serviceBit, categoryMasks[i], weight, now);
+            }
+        }
+
+        // broadcast – każda otwarta runda epoki, w której serwis jeszcze nie głosował
+        synchronized void voteOpen(
+                long epoch,
+                int serviceBit,
+                int categoryMask,
+                double weight,
+                long now,
+                Reached landed
+        ) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                int mask = masks[slot];
+                if (mask == 0 || (mask & (CLOSED | serviceBit)) != 0 || epochs[slot] != epoch) {
+                    continue;
+                }
+
+                // slot już istnieje – record() nic nie wstawia ani nie przesuwa
+                int userId = keys[slot];
+                landed.add(userId, record(userId, epoch, serviceBit, categoryMask, weight, now));
+            }
+        }
+
+        synchronized void replay(int userId, long epoch, int serviceBit, int categoryMask, double weight, long now) {
+            apply(userId, epoch, serviceBit, categoryMask, weight, now);
+        }
+
+        // odtworzenie commit()/expire() z dziennika – ten sam stan co na żywo
+        synchronized void discard(int userId, long epoch, long now) {
+            int slot = find(userId, epoch);
+            if (slot < 0) {
+                return;
+            }
+
+            if ((masks[slot] & CLOSED) != 0) {
+                remove(slot); // tombstone wygasł
+            } else {
+                close(slot, now);
+            }
+        }
+
+        synchronized void restore(
+                int userId,
+                long epoch,
+                int mask,
+                long opened,
+                double reported,
+                double[] source,
+                int offset
+        ) {
+            int slot = findOrInsert(userId, epoch);
+            masks[slot] = mask;
+            if ((mask & CLOSED) != 0) {
+                tombstones++;
+            }
+            openedAt[slot] = opened;
+            lastVoteAt[slot] = opened;
+            reportedWeight[slot] = reported;
+            System.arraycopy(source, offset, weights, slot * Category.COUNT, Category.COUNT);
+        }
+
+        // wywoływane z checkpoint(), blokada segmentu jest już trzymana
+        SegmentCopy copy() {
+            return new SegmentCopy(
+                    keys.clone(),
+                    epochs.clone(),
+                    masks.clone(),
+                    openedAt.clone(),
+                    reportedWeight.clone(),
+                    weights.clone()
+            );
+        }
+
+        private int record(
+                int userId,
+                long epoch,
+                int serviceBit,
+                int categoryMask,
+                double weight,
+                long now
+        ) {
+            Standing[] votes = standing;
+            if (votes.length > 0 && find(userId, epoch) < 0) {
+                openWithStanding(userId, epoch, votes, now);
+            }
+
+            int reported = apply(userId, epoch, serviceBit, categoryMask, weight, now);
+
+            Journal target = journal;
+            if (target != null && reported != DUPLICATE && reported != LATE) {
+                target.voted(userId, epoch, serviceBit, categoryMask, weight, now);
+            }
+
+            return reported;
+        }
+
+        // nowa runda zaczyna od stałych głosów swojej epoki – w dzienniku jak zwykłe głosy
+        private void openWithStanding(int userId, long epoch, Standing[] votes, long now) {
+            Journal target = journal;
+
+            for (Standing vote : votes) {
+                if (vote.epoch() != epoch) {
+                    continue;
+                }
+
+                apply(userId, epoch, vote.serviceBit(), vote.categoryMask(), vote.weight(), now);
+
+                if (target != null) {
+                    target.voted(userId, epoch, vote.serviceBit(), vote.categoryMask(), vote.weight(), now);
+                }
+            }
+        }
+
+        private int apply(
+                int userId,
+                long epoch,
+                int serviceBit,
+                int categoryMask,
+                double weight,
+                long now
+        ) {
+            int slot = findOrInsert(userId, epoch);
+
+            if ((masks[slot] & CLOSED) != 0 && (masks[slot] & serviceBit) == 0) {
+                // spóźniony głos zamkniętej rundy – tylko odhaczamy serwis
+                masks[slot] |= serviceBit;
+                if ((masks[slot] & ALL_SERVICES) == ALL_SERVICES) {
+                    remove(slot);
+                }
+                return LATE;
+            }
+
+            if ((masks[slot] & serviceBit) != 0) {
+                return DUPLICATE;
+            }
+
+            if (masks[slot] == 0) {
+                openedAt[slot] = now;
+            }
+
+            double[] bounds = serviceWeights;
+            weight = clamp(bounds, serviceBit, weight);
+
+            masks[slot] |= serviceBit;
+            lastVoteAt[slot] = now;
+            reportedWeight[slot] += weight;
+
+            int parts = Integer.bitCount(categoryMask);
+            if (parts > 0) {
+                double share = weight / parts;
+                int base = slot * Category.COUNT;
+                for (int c = 0; c < Category.COUNT; c++) {
+                    if ((categoryMask & (1 << c)) != 0) {
+                        weights[base + c] += share;
+                    }
+                }
+            }
+
+            int reported = masks[slot];
+
+            if (bounds != null
+                    && reported != ALL_SERVICES
+                    && decided(weights, slot * Category.COUNT, reported, bounds)) {
+                return reported | DECIDED;
+            }
+
+            return reported;
+        }
+
+        // zamknięcie bez kompletu zostawia tombstone na jeden deadline
+        private void close(int slot, long now) {
+            if (masks[slot] == ALL_SERVICES) {
+                remove(slot);
+                return;
+            }
+
+            int reported = masks[slot];
+            clear(slot);
+            masks[slot] = reported | CLOSED;
+            openedAt[slot] = now;
+            tombstones++;
+        }
+
+        synchronized Closed commit(int userId, long epoch) {
+            int slot = find(userId, epoch);
+            if (slot < 0 || (masks[slot] & CLOSED) != 0) {
+                return null;
+            }
+
+            long now = System.currentTimeMillis();
+            int verdict = verdict(weights, slot * Category.COUNT);
+            Closed closed = new Closed(verdict, openedAt[slot], lastVoteAt[slot]);
+            close(slot, now);
+
+            Journal target = journal;
+            if (target != null) {
+                target.closed(userId, epoch, verdict, now);
+            }
+
+            return closed;
+        }
+
+        synchronized int peek(int userId, long epoch) {
+            int slot = find(userId, epoch);
+            return slot < 0 || (masks[slot] & CLOSED) != 0
+                    ? NO_ROUND
+                    : verdict(weights, slot * Category.COUNT);
+        }
+
+        synchronized int reportedMask(int userId, long epoch) {
+            int slot = find(userId, epoch);
+            return slot < 0 || (masks[slot] & CLOSED) != 0 ? 0 : masks[slot];
+        }
+
+        synchronized int size() {
+            return size - tombstones;
+        }
+
+        synchronized void forEach(RoundVisitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (masks[slot] != 0 && (masks[slot] & CLOSED) == 0) {
+                    visitor.visit(keys[slot], epochs[slot], masks[slot]);
+                }
+            }
+        }
+
+        // Przenosi rundy starsze niż cutoff do expired
+        synchronized void expire(long cutoff, ExpiredRounds expired) {
+            int from = expired.size;
+            Journal target = journal;
+            long now = System.currentTimeMillis();
+
+            // do usunięcia po skanie – backward shift przesuwa sloty
+            int[] removed = new int[8];
+            long[] removedEpochs = new long[8];
+            int removedCount = 0;
+
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (masks[slot] == 0 || openedAt[slot] >= cutoff) {
+                    continue;
+                }
+
+                if ((masks[slot] & CLOSED) == 0) {
+                    expired.add(
+                            keys[slot],
+                            epochs[slot],
+                            masks[slot],
+                            reportedWeight[slot],
+                            verdict(weights, slot * Category.COUNT),
+                            openedAt[slot],
+                            lastVoteAt[slot]
+                    );
+
+                    if (masks[slot] != ALL_SERVICES) {
+                        close(slot, now); // tombstone zostaje w tym samym slocie
+                        continue;
+                    }
+                }
+
+                if (removedCount == removed.length) {
+                    removed = Arrays.copyOf(removed, removedCount * 2);
+                    removedEpochs = Arrays.copyOf(removedEpochs, removedCount * 2);
+                }
+                removed[removedCount] = keys[slot];
+                removedEpochs[removedCount++] = epochs[slot];
+            }
+
+            if (target != null) {
+                for (int i = from; i < expired.size; i++) {
+                    target.closed(expired.userIds[i], expired.epochs[i], expired.verdicts[i], now);
+                }
+            }
+
+            for (int i = 0; i < removedCount; i++) {
+                int slot = find(removed[i], removedEpochs[i]);
+
+                if (target != null && (masks[slot] & CLOSED) != 0) {
+                    target.closed(removed[i], removedEpochs[i], NO_ROUND, now);
+                }
+
+                remove(slot);
+            }
+        }
+
+        private int find(int userId, long epoch) {
+            int m = keys.length - 1;
+            for (int slot = mix(userId, epoch) & m; masks[slot] != 0; slot = (slot + 1) & m) {
+                if (keys[slot] == userId && epochs[slot] == epoch) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int findOrInsert(int userId, long epoch) {
+            int m = keys.length - 1;
+            int slot = mix(userId, epoch) & m;
+
+            while (masks[slot] != 0) {
+                if (keys[slot] == userId && epochs[slot] == epoch) {
+                    return slot;
+                }
+                slot = (slot + 1) & m;
+            }
+
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+                return findOrInsert(userId, epoch);
+            }
+
+            keys[slot] = userId;
+            epochs[slot] = epoch;
+            size++;
+            return slot;
+        }
+
+        private void remove(int slot) {
+            int m = keys.length - 1;
+
+            if ((masks[slot] & CLOSED) != 0) {
+                tombstones--;
+            }
+
+            clear(slot);
+            size--;
+
+            // backward shift: przesuwamy kolejne sloty łańcucha w dziurę
+            int hole = slot;
+            for (int next = (hole + 1) & m; masks[next] != 0; next = (next + 1) & m) {
+                int home = mix(keys[next], epochs[next]) & m;
+                boolean movable = hole <= next
+                        ? (home <= hole || home > next)
+                        : (home <= hole && home > next);
+
+                if (movable) {
+                    copy(this, next, hole);
+                    clear(next);
+                    hole = next;
+                }
+            }
+        }
+
+        private void clear(int slot) {
+            masks[slot] = 0;
+            openedAt[slot] = 0;
+            lastVoteAt[slot] = 0;
+            reportedWeight[slot] = 0;
+
+            int base = slot * Category.COUNT;
+            for (int c = 0; c < Category.COUNT; c++) {
+                weights[base + c] = 0;
+            }
+        }
+
+        private void copy(Segment source, int from, int to) {
+            keys[to] = source.keys[from];
+            epochs[to] = source.epochs[from];
+            masks[to] = source.masks[from];
+            openedAt[to] = source.openedAt[from];
+            lastVoteAt[to] = source.lastVoteAt[from];
+            reportedWeight[to] = source.reportedWeight[from];
+            System.arraycopy(
+                    source.weights, from * Category.COUNT,
+                    weights, to * Category.COUNT,
+                    Category.COUNT
+            );
+        }
+
+        private void grow() {
+            Segment old = new Segment(0);
+            old.keys = keys;
+            old.epochs = epochs;
+            old.masks = masks;
+            old.openedAt = openedAt;
+            old.lastVoteAt = lastVoteAt;
+            old.reportedWeight = reportedWeight;
+            old.weights = weights;
+
+            allocate(keys.length * 2);
+
+            int m = keys.length - 1;
+            for (int from = 0; from < old.keys.length; from++) {
+                if (old.masks[from] == 0) {
+                    continue;
+                }
+
+                int slot = mix(old.keys[from], old.epochs[from]) & m;
+                while (masks[slot] != 0) {
+                    slot = (slot + 1) & m;
+                }
+
+                copy(old, from, slot);
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity];
+            epochs = new long[capacity];
+            masks = new int[capacity];
+            openedAt = new long[capacity];
+            lastVoteAt = new long[capacity];
+            reportedWeight = new double[capacity];
+            weights = new double[capacity * Category.COUNT];
+        }
+    }
+
+    // Rundy, do których trafił broadcast – do obsłużenia po zwolnieniu blokady
+    private static final class Reached {
+
+        int[] userIds = new int[16];
+        int[] reported = new int[16];
+        int size;
+
+        void add(int userId, int mask) {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                reported = Arrays.copyOf(reported, size * 2);
+            }
+
+            userIds[size] = userId;
+            reported[size] = mask;
+            size++;
+        }
+    }
+
+    // Rundy usunięte przez expire(), trzymane do wywołania handlera
+    private static final class ExpiredRounds {
+
+        int[] userIds = new int[16];
+        long[] epochs = new long[16];
+        int[] masks = new int[16];
+        double[] reportedWeights = new double[16];
+        int[] verdicts = new int[16];
+        long[] openedAt = new long[16];
+        long[] lastVoteAt = new long[16];
+        int size;
+
+        void add(int userId, long epoch, int mask, double reportedWeight, int verdict, long opened, long lastVote) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                epochs = Arrays.copyOf(epochs, capacity);
+                masks = Arrays.copyOf(masks, capacity);
+                reportedWeights = Arrays.copyOf(reportedWeights, capacity);
+                verdicts = Arrays.copyOf(verdicts, capacity);
+                openedAt = Arrays.copyOf(openedAt, capacity);
+                lastVoteAt = Arrays.copyOf(lastVoteAt, capacity);
+            }
+
+            userIds[size] = userId;
+            epochs[size] = epoch;
+            masks[size] = mask;
+            reportedWeights[size] = reportedWeight;
+            verdicts[size] = verdict;
+            openedAt[size] = opened;
+            lastVoteAt[size] = lastVote;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.mainservice.DTO.RecommendationEntry;
+import com.example.mainservice.DTO.VerdictBatch;
+import com.example.mainservice.DTO.VerdictBatchAck;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Stałe połączenie STOMP z SafeLogin (mainservice.verdicts.*) – X-SERVICE-KEY sprawdzany raz na sesję.
+// Przy mainservice.verdicts.transport=http wyłączone, paczki idą przez RecommendationClient
+@Component
+public class VerdictLink {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(VerdictLink.class);
+
+    private static final String SERVICE_KEY = "SUPER_SECRET_SERVICE_KEY_123";
+
+    private final boolean enabled;
+    private final String url;
+    private final long ackTimeoutMs;
+
+    private final WebSocketStompClient client = WireFormat.JSON.stompClient();
+
+    private volatile StompSession session;
+    private final AtomicBoolean connecting = new AtomicBoolean();
+
+    private final Map<Long, CompletableFuture<Integer>> awaiting = new ConcurrentHashMap<>();
+
+    public VerdictLink(
+            @Value("${mainservice.verdicts.transport:stomp}") String transport,
+            @Value("${mainservice.verdicts.safelogin-ws-url:ws://localhost:8080/ws}") String url,
+            @Value("${mainservice.verdicts.ack-timeout-ms:5000}") long ackTimeoutMs
+    ) {
+        this.enabled = "stomp".equalsIgnoreCase(transport.trim());
+        this.url = url;
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
+
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    // Wysyła paczkę i czeka na odpowiedź (tylko wątek flush VerdictWriter); -1 = do ponowienia
+    public int save(long batchId, List<RecommendationEntry> entries) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return -1;
+        }
+
+        CompletableFuture<Integer> answer = new CompletableFuture<>();
+        awaiting.put(batchId, answer);
+
+        try {
+            current.send("/app/recommendations.batch", new VerdictBatch(batchId, entries));
+            return answer.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            logger.warn("Verdict batch #{} ({} entries) not confirmed within {} ms", batchId, entries.size(), ackTimeoutMs);
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            logger.error("Failed to publish verdict batch #{}", batchId, e);
+            return -1;
+        } finally {
+            awaiting.remove(batchId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mainservice.verdicts.reconnect-interval-ms:5000}")
+    public void ensureConnected() {
+        if (!enabled || isConnected() || !connecting.compareAndSet(false, true)) {
+            return;
+        }
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("X-SERVICE-KEY", SERVICE_KEY);
+
+        client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+
+            @Override
+            public void afterConnected(StompSession session, StompHeaders headers) {
+                logger.info("CONNECTED to SafeLogin ({})", url);
+
+                session.subscribe("/user/queue/recommendations.ack", new StompFrameHandler() {
+
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return VerdictBatchAck.class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        VerdictBatchAck ack = (VerdictBatchAck) payload;
+                        CompletableFuture<Integer> answer = awaiting.get(ack.batchId());
+                        if (answer != null) {
+                            answer.complete(ack.saved());
+                        }
+                    }
+                });
+
+                VerdictLink.this.session = session;
+            }
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                logger.warn("SafeLogin link lost: {}", exception.getMessage());
+            }
+        }).whenComplete((session, error) -> {
+            connecting.set(false);
+            if (error != null) {
+                logger.warn("Cannot connect to SafeLogin ({}): {}", url, error.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        client.stop();
+    }
+}
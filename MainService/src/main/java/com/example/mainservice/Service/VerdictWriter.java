@@ -0,0 +1,157 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.DTO.RecommendationEntry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Kolejka werdyktów do SafeLogin – submit() tylko zapisuje (ostatni werdykt użytkownika wygrywa),
+// wysyła jeden wątek w tle paczkami co flush interval albo po zebraniu batch size
+@Component
+public class VerdictWriter {
+
+    private final RecommendationClient recommendationClient;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private Map<Integer, String> pending = new LinkedHashMap<>();
+
+    // paczki bez potwierdzenia – ponawiane w tej samej postaci i z tym samym batchId, SafeLogin pomija powtórkę
+    private final ArrayDeque<Chunk> unconfirmed = new ArrayDeque<>();
+
+    // losowy początek – partycje MainService i kolejne starty nie trafiają na te same numery
+    private final AtomicLong batchIds = new AtomicLong(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE >> 1));
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "verdict-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public VerdictWriter(
+            RecommendationClient recommendationClient,
+            @Value("${mainservice.verdicts.batch-size:500}") int batchSize,
+            @Value("${mainservice.verdicts.flush-interval-ms:1000}") long flushIntervalMs
+    ) {
+        this.recommendationClient = recommendationClient;
+        this.batchSize = Math.max(1, batchSize);
+
+        flusher.scheduleWithFixedDelay(
+                this::flush,
+                flushIntervalMs,
+                flushIntervalMs,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    public void submit(int userId, String category) {
+        int size;
+
+        synchronized (lock) {
+            pending.put(userId, category);
+            size = pending.size();
+        }
+
+        if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            int count = pending.size();
+            for (Chunk chunk : unconfirmed) {
+                count += chunk.entries().size();
+            }
+            return count;
+        }
+    }
+
+    void flush() {
+        flushRequested.set(false);
+
+        // najpierw zaległe paczki, po kolei – nowsze werdykty tych użytkowników idą po nich
+        while (true) {
+            Chunk chunk;
+            synchronized (lock) {
+                chunk = unconfirmed.peekFirst();
+            }
+            if (chunk == null) {
+                break;
+            }
+            if (!recommendationClient.saveRecommendations(chunk.batchId(), chunk.entries())) {
+                return;
+            }
+            synchronized (lock) {
+                unconfirmed.pollFirst();
+            }
+        }
+
+        Map<Integer, String> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        List<RecommendationEntry> entries = new ArrayList<>(batch.size());
+        batch.forEach((userId, category) ->
+                entries.add(new RecommendationEntry(userId, category)));
+
+        // jedno żądanie to najwyżej batchSize użytkowników – także po awarii SafeLogin
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            Chunk chunk = new Chunk(
+                    batchIds.incrementAndGet(),
+                    entries.subList(from, Math.min(from + batchSize, entries.size()))
+            );
+
+            if (!recommendationClient.saveRecommendations(chunk.batchId(), chunk.entries())) {
+                // SafeLogin mógł zapisać paczkę mimo braku ACK – ponowienie z tym samym batchId
+                unconfirm(chunk, entries.subList(from + chunk.entries().size(), entries.size()));
+                return;
+            }
+        }
+    }
+
+    private void unconfirm(Chunk failed, List<RecommendationEntry> rest) {
+        synchronized (lock) {
+            unconfirmed.addLast(failed);
+            for (int from = 0; from < rest.size(); from += batchSize) {
+                unconfirmed.addLast(new Chunk(
+                        batchIds.incrementAndGet(),
+                        rest.subList(from, Math.min(from + batchSize, rest.size()))
+                ));
+            }
+        }
+    }
+
+    private record Chunk(long batchId, List<RecommendationEntry> entries) {}
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.mainservice.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Skrzynki głosów – jeden wątek na pas (pas = segment RoundStore modulo mainservice.rounds.mailboxes).
+// Głosy jednego użytkownika idą po kolei, a segment pisze tylko jego pas; mailboxes = 0 – na wątku wołającego
+@Component
+public class VoteMailboxes {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(VoteMailboxes.class);
+
+    // Część paczki należąca do jednego pasa
+    @FunctionalInterface
+    public interface BatchSlice {
+        void process(int[] userIds, int[] categoryMasks, int count);
+    }
+
+    // Praca na jednym segmencie RoundStore
+    @FunctionalInterface
+    public interface SegmentTask {
+        void process(int segment);
+    }
+
+    private final RoundStore roundStore;
+
+    // null = tryb inline
+    private final ThreadPoolExecutor[] stripes;
+
+    public VoteMailboxes(
+            RoundStore roundStore,
+            @Value("${mainservice.rounds.mailboxes:0}") int mailboxes
+    ) {
+        this.roundStore = roundStore;
+
+        // więcej pasów niż segmentów nic nie daje – segment musi mieć jednego właściciela
+        int count = Math.min(mailboxes, roundStore.segmentCount());
+
+        if (count <= 0) {
+            this.stripes = null;
+            return;
+        }
+
+        this.stripes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String name = "vote-mailbox-" + i;
+            stripes[i] = new ThreadPoolExecutor(
+                    1, 1,
+                    0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread thread = new Thread(r, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+        }
+    }
+
+    public int stripeCount() {
+        return stripes == null ? 0 : stripes.length;
+    }
+
+    // Zadania czekające we wszystkich skrzynkach
+    public int queuedCount() {
+        if (stripes == null) {
+            return 0;
+        }
+
+        int queued = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            queued += stripe.getQueue().size();
+        }
+        return queued;
+    }
+
+    // Zadanie na pasie użytkownika, po wszystkim, co już tam czeka
+    public void execute(int userId, Runnable task) {
+        if (stripes == null) {
+            task.run();
+            return;
+        }
+
+        stripes[stripeOf(userId)].execute(() -> runSafely(task));
+    }
+
+    // Dzieli paczkę na pasy; whenDone raz, po ostatniej części
+    public void executeBatch(
+            int[] userIds,
+            int[] categoryMasks,
+            int count,
+            BatchSlice slice,
+            Runnable whenDone
+    ) {
+        if (stripes == null) {
+            slice.process(userIds, categoryMasks, count);
+            whenDone.run();
+            return;
+        }
+
+        int[] stripeOf = new int[count];
+        int[] sizes = new int[stripes.length];
+
+        for (int i = 0; i < count; i++) {
+            stripeOf[i] = stripeOf(userIds[i]);
+            sizes[stripeOf[i]]++;
+        }
+
+        int[][] stripeUsers = new int[stripes.length][];
+        int[][] stripeMasks = new int[stripes.length][];
+        int parts = 0;
+
+        for (int s = 0; s < stripes.length; s++) {
+            if (sizes[s] > 0) {
+                stripeUsers[s] = new int[sizes[s]];
+                stripeMasks[s] = new int[sizes[s]];
+                parts++;
+            }
+        }
+
+        int[] filled = new int[stripes.length];
+        for (int i = 0; i < count; i++) {
+            int s = stripeOf[i];
+            stripeUsers[s][filled[s]] = userIds[i];
+            stripeMasks[s][filled[s]] = categoryMasks[i];
+            filled[s]++;
+        }
+
+        if (parts == 0) {
+            whenDone.run();
+            return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(parts);
+
+        for (int s = 0; s < stripes.length; s++) {
+            if (sizes[s] == 0) {
+                continue;
+            }
+
+            int[] users = stripeUsers[s];
+            int[] masks = stripeMasks[s];
+
+            stripes[s].execute(() -> {
+                runSafely(() -> slice.process(users, masks, users.length));
+
+                if (remaining.decrementAndGet() == 0) {
+                    runSafely(whenDone);
+                }
+            });
+        }
+    }
+
+    // Zadanie dla każdego segmentu na pasie, który go posiada; whenDone raz, po ostatnim
+    public void executeSegments(SegmentTask task, Runnable whenDone) {
+        int segments = roundStore.segmentCount();
+
+        if (stripes == null) {
+            for (int segment = 0; segment < segments; segment++) {
+                task.process(segment);
+            }
+            whenDone.run();
+            return;
+        }
+
+        // pasów nie więcej niż segmentów – każdy pas ma co najmniej jeden
+        AtomicInteger remaining = new AtomicInteger(stripes.length);
+
+        for (int s = 0; s < stripes.length; s++) {
+            int stripe = s;
+
+            stripes[s].execute(() -> {
+                runSafely(() -> {
+                    for (int segment = stripe; segment < segments; segment += stripes.length) {
+                        task.process(segment);
+                    }
+                });
+
+                if (remaining.decrementAndGet() == 0) {
+                    runSafely(whenDone);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stripes == null) {
+            return;
+        }
+
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+
+        try {
+            for (ExecutorService stripe : stripes) {
+                stripe.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int stripeOf(int userId) {
+        return roundStore.segmentIndex(userId) % stripes.length;
+    }
+
+    // wyjątek z jednego zadania nie może zabić pasa ani zgubić whenDone
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Vote mailbox task failed", e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.mainservice.Service;
+
+import com.example.mainservice.Model.Satellites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Metryki głosowania (/actuator/prometheus) – rejestrowane raz, gorąca ścieżka tylko inkrementuje
+@Component
+public class VotingMetrics {
+
+    private final Counter[] votes;
+    private final Counter[] duplicates;
+    private final Counter[] late;
+    private final Counter[] replayedFrames;
+
+    private final Counter roundsCompleted;
+    private final Counter roundsDecidedEarly;
+    private final Counter roundsTimedOut;
+    private final Counter roundsDiscarded;
+    private final Counter otherVerdicts;
+
+    private final Timer timeToVerdict;
+    private final Timer arrivalSkew;
+    private final Timer recommendationsSaved;
+    private final Timer recommendationsFailed;
+
+    public VotingMetrics(MeterRegistry registry) {
+
+        List<String> expectedServices = Satellites.NAMES;
+
+        votes = new Counter[expectedServices.size()];
+        duplicates = new Counter[expectedServices.size()];
+        late = new Counter[expectedServices.size()];
+        replayedFrames = new Counter[expectedServices.size()];
+
+        for (int i = 0; i < expectedServices.size(); i++) {
+            votes[i] = Counter.builder("mainservice.votes")
+                    .description("Votes accepted into a round")
+                    .tag("service", expectedServices.get(i))
+                    .register(registry);
+            duplicates[i] = Counter.builder("mainservice.votes.duplicate")
+                    .description("Votes dropped because the service already voted in the round")
+                    .tag("service", expectedServices.get(i))
+                    .register(registry);
+            late[i] = Counter.builder("mainservice.votes.late")
+                    .description("Votes dropped because their round was already decided")
+                    .tag("service", expectedServices.get(i))
+                    .register(registry);
+            replayedFrames[i] = Counter.builder("mainservice.frames.replayed")
+                    .description("Vote frames dropped because their sequence number was already seen")
+                    .tag("service", expectedServices.get(i))
+                    .register(registry);
+        }
+
+        roundsCompleted = Counter.builder("mainservice.rounds")
+                .description("Closed rounds")
+                .tag("outcome", "completed")
+                .register(registry);
+        roundsDecidedEarly = Counter.builder("mainservice.rounds")
+                .description("Closed rounds")
+                .tag("outcome", "decided_early")
+                .register(registry);
+        roundsTimedOut = Counter.builder("mainservice.rounds")
+                .description("Closed rounds")
+                .tag("outcome", "timed_out")
+                .register(registry);
+        roundsDiscarded = Counter.builder("mainservice.rounds")
+                .description("Closed rounds")
+                .tag("outcome", "discarded")
+                .register(registry);
+
+        otherVerdicts = Counter.builder("mainservice.verdicts.other")
+                .description("Verdicts saved as OTHER (no confident winner)")
+                .register(registry);
+
+        timeToVerdict = Timer.builder("mainservice.round.time_to_verdict")
+                .description("First vote of a round to its verdict")
+                .publishPercentileHistogram()
+                .register(registry);
+        arrivalSkew = Timer.builder("mainservice.round.arrival_skew")
+                .description("First to last satellite vote within a round")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        recommendationsSaved = Timer.builder("mainservice.recommendations.latency")
+                .description("Verdict batch save in SafeLogin until confirmed (STOMP or HTTP)")
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(registry);
+        recommendationsFailed = Timer.builder("mainservice.recommendations.latency")
+                .description("Verdict batch save in SafeLogin until confirmed (STOMP or HTTP)")
+                .tag("outcome", "failure")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void voteAccepted(int serviceIndex, int count) {
+        votes[serviceIndex].increment(count);
+    }
+
+    public void voteDuplicate(int serviceIndex, int count) {
+        duplicates[serviceIndex].increment(count);
+    }
+
+    public void voteLate(int serviceIndex, int count) {
+        late[serviceIndex].increment(count);
+    }
+
+    public void frameReplayed(int serviceIndex) {
+        replayedFrames[serviceIndex].increment();
+    }
+
+    public void roundCompleted(long openedAtMillis, long lastVoteAtMillis, long nowMillis) {
+        roundsCompleted.increment();
+        recordTiming(openedAtMillis, lastVoteAtMillis, nowMillis);
+    }
+
+    public void roundDecidedEarly(long openedAtMillis, long lastVoteAtMillis, long nowMillis) {
+        roundsDecidedEarly.increment();
+        recordTiming(openedAtMillis, lastVoteAtMillis, nowMillis);
+    }
+
+    public void roundTimedOut(long openedAtMillis, long lastVoteAtMillis, long nowMillis) {
+        roundsTimedOut.increment();
+        recordTiming(openedAtMillis, lastVoteAtMillis, nowMillis);
+    }
+
+    public void roundDiscarded() {
+        roundsDiscarded.increment();
+    }
+
+    public void otherVerdict() {
+        otherVerdicts.increment();
+    }
+
+    public void recommendationCall(long nanos, boolean success) {
+        (success ? recommendationsSaved : recommendationsFailed)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordTiming(long openedAtMillis, long lastVoteAtMillis, long nowMillis) {
+        timeToVerdict.record(Math.max(0, nowMillis - openedAtMillis), TimeUnit.MILLISECONDS);
+        arrivalSkew.record(Math.max(0, lastVoteAtMillis - openedAtMillis), TimeUnit.MILLISECONDS);
+    }
+}
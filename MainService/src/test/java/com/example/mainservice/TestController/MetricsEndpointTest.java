@@ -0,0 +1,64 @@
+package com.example.mainservice.TestController;
+
+import com.example.mainservice.Controller.MainServiceController;
+import com.example.mainservice.DTO.VoteMessage;
+import com.example.mainservice.Model.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MainServiceController controller;
+
+    @Test
+    void prometheus_ShouldExposeVotingPipelineMetrics() throws Exception {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setSessionId("metrics-test");
+
+        // komplet 7 głosów -> runda zamknięta, werdykt MUSIC
+        for (int serviceId = 1; serviceId <= 7; serviceId++) {
+            controller.receiveVote(
+                    new VoteMessage(3_000, 1 << Category.MUSIC.ordinal(), serviceId, 1, 1.0, 0),
+                    headers
+            );
+        }
+        controller.receiveVote(
+                new VoteMessage(3_001, 1 << Category.SPORT.ordinal(), 2, 1, 0.5, 0),
+                headers
+        );
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertEquals(200, response.statusCode());
+
+        String body = response.body();
+        assertTrue(body.contains("mainservice_votes_total{service=\"Service2\"}"));
+        assertTrue(body.contains("mainservice_rounds_total{outcome=\"completed\"}"));
+        assertTrue(body.contains("mainservice_rounds_total{outcome=\"timed_out\"}"));
+        assertTrue(body.contains("mainservice_verdicts_other_total"));
+        assertTrue(body.contains("mainservice_round_time_to_verdict_seconds_bucket"));
+        assertTrue(body.contains("mainservice_round_arrival_skew_seconds_count"));
+        assertTrue(body.contains("mainservice_recommendations_latency_seconds"));
+        assertTrue(body.contains("mainservice_rounds_in_flight"));
+        assertTrue(body.contains("mainservice_verdicts_pending"));
+        assertTrue(body.contains("mainservice_stomp_queue_depth{channel=\"inbound\"}"));
+    }
+}
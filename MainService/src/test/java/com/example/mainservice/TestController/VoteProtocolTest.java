@@ -0,0 +1,133 @@
+package com.example.mainservice.TestController;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.mainservice.DTO.VoteAck;
+import com.example.mainservice.DTO.VoteBatch;
+import com.example.mainservice.DTO.VoteMessage;
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Service.RoundStore;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class VoteProtocolTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RoundStore roundStore;
+
+    @ParameterizedTest
+    @EnumSource(WireFormat.class)
+    void vote_ShouldReachRoundStoreInEveryWireFormat(WireFormat format) throws Exception {
+        int userId = 1_000 + format.ordinal();
+
+        WebSocketStompClient client = format.stompClient();
+        StompSession session = client
+                .connectAsync(
+                        format.endpointUrl("ws://localhost:" + port + "/main-ws"),
+                        new StompSessionHandlerAdapter() {}
+                )
+                .get(10, TimeUnit.SECONDS);
+
+        session.send("/app/vote", new VoteMessage(
+                userId, 1 << Category.MUSIC.ordinal(), 2, 1, 0.5, 0
+        ));
+        session.send("/app/vote", new VoteMessage(
+                userId, (1 << Category.MUSIC.ordinal()) | (1 << Category.SPORT.ordinal()), 7, 1, 0.9, 0
+        ));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (roundStore.reportedMask(userId, 1) != 0b1000010
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(0b1000010, roundStore.reportedMask(userId, 1));
+        assertEquals(Category.MUSIC.ordinal(), roundStore.peekVerdict(userId, 1));
+
+        session.disconnect();
+        client.stop();
+    }
+
+    @ParameterizedTest
+    @EnumSource(WireFormat.class)
+    void voteBatch_ShouldRecordEveryUserOfTheChunk(WireFormat format) throws Exception {
+        int firstUser = 2_000 + format.ordinal() * 100;
+
+        WebSocketStompClient client = format.stompClient();
+        StompSession session = client
+                .connectAsync(
+                        format.endpointUrl("ws://localhost:" + port + "/main-ws"),
+                        new StompSessionHandlerAdapter() {}
+                )
+                .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<VoteAck> acks = new LinkedBlockingQueue<>();
+        session.subscribe("/user/queue/ack", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return VoteAck.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                acks.add((VoteAck) payload);
+            }
+        });
+
+        VoteBatch.Builder builder = new VoteBatch.Builder(4, 1, 1.0, 50);
+        for (int i = 0; i < 50; i++) {
+            builder.add(firstUser + i, 1 << Category.GAMING.ordinal());
+        }
+        assertTrue(builder.isFull());
+
+        long seq = 100 + format.ordinal();
+        VoteBatch frame = builder.drain(seq);
+        assertTrue(builder.isEmpty());
+
+        session.send("/app/vote-batch", frame);
+
+        int lastUser = firstUser + 49;
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        // skrzynki przetwarzają użytkowników równolegle – czekamy na każdego, nie tylko ostatniego
+        for (int userId = firstUser; userId <= lastUser; userId++) {
+            while (roundStore.reportedMask(userId, 1) == 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        }
+
+        for (int userId = firstUser; userId <= lastUser; userId++) {
+            assertEquals(0b1000, roundStore.reportedMask(userId, 1));
+            assertEquals(Category.GAMING.ordinal(), roundStore.peekVerdict(userId, 1));
+        }
+
+        // application.properties: mainservice.ack.mode=cumulative -> jeden ACK na paczkę
+        assertEquals(new VoteAck(4, 1, seq, 50), acks.poll(10, TimeUnit.SECONDS));
+
+        // ta sama ramka po "reconnect" – potwierdzona, ale nie liczona drugi raz
+        session.send("/app/vote-batch", frame);
+        assertEquals(new VoteAck(4, 1, seq, 0), acks.poll(10, TimeUnit.SECONDS));
+
+        session.disconnect();
+        client.stop();
+    }
+}
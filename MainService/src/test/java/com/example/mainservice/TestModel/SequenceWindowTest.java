@@ -0,0 +1,43 @@
+package com.example.mainservice.TestModel;
+
+import com.example.mainservice.Model.SequenceWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceWindowTest {
+
+    @Test
+    void accept_ShouldRejectRepeatedNumbers() {
+        SequenceWindow window = new SequenceWindow();
+
+        assertTrue(window.accept(10));
+        assertTrue(window.accept(11));
+        assertFalse(window.accept(10));
+        assertFalse(window.accept(11));
+        assertEquals(11, window.highest());
+    }
+
+    @Test
+    void accept_ShouldTakeOutOfOrderFramesInsideWindowOnce() {
+        SequenceWindow window = new SequenceWindow();
+
+        assertTrue(window.accept(100));
+        assertTrue(window.accept(97));
+        assertTrue(window.accept(99));
+        assertFalse(window.accept(97));
+
+        // wypadło z okna – traktujemy jak powtórkę
+        assertFalse(window.accept(100 - SequenceWindow.SIZE));
+    }
+
+    @Test
+    void accept_ShouldAlwaysTakeUnsequencedFrames() {
+        SequenceWindow window = new SequenceWindow();
+
+        assertTrue(window.accept(0));
+        assertTrue(window.accept(0));
+        assertTrue(window.accept(5_000));
+        assertTrue(window.accept(0));
+    }
+}
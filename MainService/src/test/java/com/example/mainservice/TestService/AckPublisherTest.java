@@ -0,0 +1,83 @@
+package com.example.mainservice.TestService;
+
+import com.example.mainservice.DTO.VoteAck;
+import com.example.mainservice.Service.AckPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AckPublisherTest {
+
+    private final SimpMessageSendingOperations template =
+            mock(SimpMessageSendingOperations.class);
+
+    private static SimpMessageHeaderAccessor session(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId(sessionId);
+        return accessor;
+    }
+
+    @Test
+    void voteProcessed_InNoneMode_ShouldSendNothing() {
+        AckPublisher publisher = new AckPublisher(template, "none");
+
+        publisher.voteProcessed(session("s1"), 1, 1, 0);
+        publisher.batchProcessed(session("s1"), 1, 1, 0, 500);
+
+        verifyNoInteractions(template);
+    }
+
+    @Test
+    void voteProcessed_InSessionMode_ShouldAckEveryFrameToSenderOnly() {
+        AckPublisher publisher = new AckPublisher(template, "session");
+
+        publisher.voteProcessed(session("s1"), 3, 7, 11);
+        publisher.batchProcessed(session("s2"), 4, 7, 12, 500);
+
+        verify(template).convertAndSendToUser(
+                eq("s1"), eq(AckPublisher.ACK_DESTINATION), eq(new VoteAck(3, 7, 11, 1)), any(MessageHeaders.class));
+        verify(template).convertAndSendToUser(
+                eq("s2"), eq(AckPublisher.ACK_DESTINATION), eq(new VoteAck(4, 7, 12, 500)), any(MessageHeaders.class));
+    }
+
+    @Test
+    void voteProcessed_InCumulativeMode_ShouldAckOncePerRound() {
+        AckPublisher publisher = new AckPublisher(template, "cumulative");
+
+        publisher.voteProcessed(session("s1"), 2, 1, 1);
+        publisher.voteProcessed(session("s1"), 2, 1, 2);
+        publisher.voteProcessed(session("s1"), 2, 1, 3);
+        verifyNoInteractions(template);
+
+        publisher.voteProcessed(session("s1"), 2, 2, 4);
+
+        verify(template, times(1)).convertAndSendToUser(
+                eq("s1"), eq(AckPublisher.ACK_DESTINATION), eq(new VoteAck(2, 1, 3, 3)), any(MessageHeaders.class));
+    }
+
+    @Test
+    void batchProcessed_OutOfOrder_ShouldAckOnlyContiguousPrefix() {
+        AckPublisher publisher = new AckPublisher(template, "session");
+
+        publisher.frameReceived(session("s1"), 10);
+        publisher.frameReceived(session("s1"), 11);
+        publisher.frameReceived(session("s1"), 12);
+
+        // #11 skończyła się pierwsza – #10 wciąż w skrzynce, ACK #11 zgubiłby ją przy awarii
+        publisher.batchProcessed(session("s1"), 2, 5, 11, 300);
+        verifyNoInteractions(template);
+
+        publisher.batchProcessed(session("s1"), 2, 5, 10, 500);
+        verify(template).convertAndSendToUser(
+                eq("s1"), eq(AckPublisher.ACK_DESTINATION), eq(new VoteAck(2, 5, 11, 800)), any(MessageHeaders.class));
+
+        publisher.batchProcessed(session("s1"), 2, 5, 12, 100);
+        verify(template).convertAndSendToUser(
+                eq("s1"), eq(AckPublisher.ACK_DESTINATION), eq(new VoteAck(2, 5, 12, 100)), any(MessageHeaders.class));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.mainservice.TestService;
+
+import com.example.mainservice.DTO.VoteCredit;
+import com.example.mainservice.Service.CreditPublisher;
+import com.example.mainservice.Service.VoteMailboxes;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CreditPublisherTest {
+
+    private final SimpMessageSendingOperations template =
+            mock(SimpMessageSendingOperations.class);
+
+    private final VoteMailboxes mailboxes = mock(VoteMailboxes.class);
+
+    private CreditPublisher publisher(boolean enabled) {
+        return new CreditPublisher(template, mailboxes, Runnable::run, enabled, 16, 2000);
+    }
+
+    private static SimpMessageHeaderAccessor session(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId(sessionId);
+        return accessor;
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return new SessionSubscribeEvent(
+                CreditPublisherTest.class,
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())
+        );
+    }
+
+    private void verifyGranted(String sessionId, int credits) {
+        verify(template).convertAndSendToUser(
+                eq(sessionId), eq(CreditPublisher.CREDIT_DESTINATION), eq(new VoteCredit(credits)), any(MessageHeaders.class));
+    }
+
+    @Test
+    void window_ShouldShrinkWithBacklog() {
+        CreditPublisher publisher = publisher(true);
+
+        when(mailboxes.queuedCount()).thenReturn(0);
+        assertEquals(16, publisher.window());
+
+        when(mailboxes.queuedCount()).thenReturn(1000);
+        assertEquals(8, publisher.window());
+
+        when(mailboxes.queuedCount()).thenReturn(1999);
+        assertEquals(1, publisher.window());
+
+        when(mailboxes.queuedCount()).thenReturn(2000);
+        assertEquals(0, publisher.window());
+    }
+
+    @Test
+    void onSubscribe_ShouldGrantFullWindowAndTopUpAfterHalfIsUsed() {
+        CreditPublisher publisher = publisher(true);
+
+        publisher.onSubscribe(subscribe("s1", "/user/queue/credits"));
+        verifyGranted("s1", 16);
+
+        // 7 ramek w locie z 16 – jeszcze ponad połowa okna, nic nie dokładamy
+        for (int i = 0; i < 7; i++) {
+            publisher.frameReceived(session("s1"));
+        }
+        publisher.frameProcessed(session("s1"));
+        verifyNoMoreInteractions(template);
+
+        publisher.frameReceived(session("s1"));
+        publisher.frameProcessed(session("s1"));
+        verifyGranted("s1", 8);
+    }
+
+    @Test
+    void pump_ShouldHoldCreditsBackUntilBacklogDrains() {
+        CreditPublisher publisher = publisher(true);
+
+        // odpowiedź na SUBSCRIBE wychodzi zawsze – 0 każe satelicie czekać
+        when(mailboxes.queuedCount()).thenReturn(5000);
+        publisher.onSubscribe(subscribe("s1", "/user/queue/credits"));
+        publisher.pump();
+        verifyGranted("s1", 0);
+        verifyNoMoreInteractions(template);
+
+        when(mailboxes.queuedCount()).thenReturn(0);
+        publisher.pump();
+        verifyGranted("s1", 16);
+    }
+
+    @Test
+    void frameReceived_BeyondGrant_ShouldNotInflateNextGrant() {
+        CreditPublisher publisher = publisher(true);
+
+        publisher.onSubscribe(subscribe("s1", "/user/queue/credits"));
+        verifyGranted("s1", 16);
+
+        for (int i = 0; i < 20; i++) {
+            publisher.frameReceived(session("s1"));
+        }
+        publisher.frameProcessed(session("s1"));
+
+        verify(template, times(2)).convertAndSendToUser(
+                eq("s1"), eq(CreditPublisher.CREDIT_DESTINATION), eq(new VoteCredit(16)), any(MessageHeaders.class));
+        verifyNoMoreInteractions(template);
+    }
+
+    @Test
+    void onSubscribe_WhenFlowDisabled_ShouldSignalUnlimited() {
+        CreditPublisher disabled = publisher(false);
+        disabled.onSubscribe(subscribe("s1", "/user/queue/credits"));
+
+        verifyGranted("s1", VoteCredit.UNLIMITED);
+        assertEquals(0, disabled.sessionCount());
+    }
+
+    @Test
+    void sessionsWithoutCreditSubscription_ShouldNotBeLimited() {
+        CreditPublisher enabled = publisher(true);
+        enabled.onSubscribe(subscribe("s2", "/user/queue/acks"));
+        enabled.frameReceived(session("s2"));
+        enabled.frameProcessed(session("s2"));
+
+        verifyNoInteractions(template);
+        assertEquals(0, enabled.sessionCount());
+    }
+}
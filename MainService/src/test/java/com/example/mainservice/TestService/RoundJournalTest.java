@@ -0,0 +1,127 @@
+package com.example.mainservice.TestService;
+
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Service.RoundJournal;
+import com.example.mainservice.Service.RoundStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundJournalTest {
+
+    private static final long EPOCH = 1;
+
+    @TempDir
+    Path directory;
+
+    private static int mask(Category category) {
+        return 1 << category.ordinal();
+    }
+
+    private RoundJournal openJournal(RoundStore store) throws Exception {
+        RoundJournal journal = new RoundJournal(store, true, directory.toString(), 1);
+        journal.open();
+        return journal;
+    }
+
+    @Test
+    void open_AfterCrash_ShouldRebuildRoundsFromJournalTail() throws Exception {
+        RoundStore before = new RoundStore(4, 16);
+        openJournal(before);
+
+        before.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        before.vote(1, EPOCH, 3, mask(Category.SPORT), 1.0);
+        before.vote(2, EPOCH, 0, mask(Category.GAMING), 2.0);
+        before.vote(3, EPOCH, 1, mask(Category.MOVIES), 0.5);
+        before.commit(2, EPOCH);
+
+        // brak close() – symulujemy kill -9, dziennik nie był kompaktowany
+        RoundStore after = new RoundStore(4, 16);
+        openJournal(after);
+
+        assertEquals(2, after.size());
+        assertEquals(before.reportedMask(1, EPOCH), after.reportedMask(1, EPOCH));
+        assertEquals(Category.MUSIC.ordinal(), after.peekVerdict(1, EPOCH));
+        assertEquals(0, after.reportedMask(2, EPOCH));
+        assertEquals(RoundStore.DUPLICATE, after.vote(3, EPOCH, 1, mask(Category.MUSIC), 0.5));
+    }
+
+    @Test
+    void open_AfterCrash_ShouldKeepStandingVoteForRoundsOpenedLater() throws Exception {
+        RoundStore before = new RoundStore(4, 16);
+        openJournal(before);
+
+        before.voteBroadcast(4, EPOCH, mask(Category.MUSIC), 2.0, (userId, epoch, reported) -> {});
+        before.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+
+        // kill -9 – stały głos jest tylko w dzienniku
+        RoundStore after = new RoundStore(4, 16);
+        openJournal(after);
+
+        assertEquals(0b10001, after.reportedMask(1, EPOCH));
+        assertEquals(0b10100, after.vote(2, EPOCH, 2, mask(Category.SPORT), 1.0));
+    }
+
+    @Test
+    void checkpoint_ShouldCarryStandingVoteIntoNextJournal() throws Exception {
+        RoundStore before = new RoundStore(4, 16);
+        RoundJournal journal = openJournal(before);
+
+        before.voteBroadcast(4, EPOCH, mask(Category.MUSIC), 2.0, (userId, epoch, reported) -> {});
+        journal.checkpoint();
+
+        RoundStore after = new RoundStore(4, 16);
+        openJournal(after);
+
+        assertEquals(0b10100, after.vote(3, EPOCH, 2, mask(Category.SPORT), 1.0));
+        assertEquals(RoundStore.DUPLICATE,
+                after.voteBroadcast(4, EPOCH, mask(Category.MUSIC), 2.0, (userId, epoch, reported) -> {}));
+    }
+
+    @Test
+    void checkpoint_ShouldCompactIntoSnapshotAndKeepLaterVotes() throws Exception {
+        RoundStore before = new RoundStore(4, 16);
+        RoundJournal journal = openJournal(before);
+
+        for (int userId = 0; userId < 1_000; userId++) {
+            before.vote(userId, EPOCH, 0, mask(Category.ofOrdinal(userId % Category.COUNT)), 2.0);
+        }
+
+        journal.checkpoint();
+
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count()); // snapshot + bieżący dziennik
+        }
+
+        before.vote(5, EPOCH, 2, mask(Category.ofOrdinal(5)), 1.0);
+        before.commit(7, EPOCH);
+
+        RoundStore after = new RoundStore(4, 16);
+        openJournal(after);
+
+        assertEquals(999, after.size());
+        assertEquals(0b101, after.reportedMask(5, EPOCH));
+        assertEquals(0, after.reportedMask(7, EPOCH));
+        assertEquals(Category.ofOrdinal(998 % Category.COUNT).ordinal(), after.peekVerdict(998, EPOCH));
+    }
+
+    @Test
+    void append_BeyondInitialSize_ShouldGrowTheMapping() throws Exception {
+        RoundStore before = new RoundStore(4, 16);
+        openJournal(before);
+
+        // 1 MB / 32 B = 32768 rekordów – 40000 wymusza powiększenie pliku
+        for (int userId = 0; userId < 40_000; userId++) {
+            before.vote(userId, EPOCH, 6, mask(Category.EDUCATION), 0.9);
+        }
+
+        RoundStore after = new RoundStore(4, 16);
+        openJournal(after);
+
+        assertEquals(40_000, after.size());
+    }
+}
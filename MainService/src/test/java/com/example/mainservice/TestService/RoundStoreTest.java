@@ -0,0 +1,323 @@
+package com.example.mainservice.TestService;
+
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Service.RoundStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundStoreTest {
+
+    private static final long EPOCH = 1;
+
+    private RoundStore roundStore;
+
+    @BeforeEach
+    void setUp() {
+        roundStore = new RoundStore(4, 16);
+    }
+
+    private static int mask(Category... categories) {
+        int mask = 0;
+        for (Category c : categories) {
+            mask |= 1 << c.ordinal();
+        }
+        return mask;
+    }
+
+    @Test
+    void vote_ShouldAccumulateReportedServices() {
+        assertEquals(0b001, roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0));
+        assertEquals(0b101, roundStore.vote(1, EPOCH, 2, mask(Category.MUSIC), 1.0));
+        assertEquals(0b101, roundStore.reportedMask(1, EPOCH));
+        assertEquals(1, roundStore.size());
+    }
+
+    @Test
+    void vote_WhenServiceAlreadyReported_ShouldReturnDuplicate() {
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+
+        assertEquals(RoundStore.DUPLICATE, roundStore.vote(1, EPOCH, 0, mask(Category.SPORT), 2.0));
+        assertEquals(Category.MUSIC.ordinal(), roundStore.peekVerdict(1, EPOCH));
+    }
+
+    @Test
+    void resultCodes_ShouldBeDistinct() {
+        assertEquals(4, java.util.stream.IntStream.of(
+                RoundStore.NO_VERDICT, RoundStore.NO_ROUND, RoundStore.LATE, RoundStore.DUPLICATE
+        ).distinct().count());
+    }
+
+    @Test
+    void voteBatch_ShouldMatchSingleVotesAcrossSegments() {
+        int[] userIds = new int[200];
+        int[] masks = new int[200];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = i * 31;
+            masks[i] = mask(Category.ofOrdinal(i % Category.COUNT));
+        }
+        roundStore.vote(0, EPOCH, 1, mask(Category.SPORT), 0.5);
+        roundStore.vote(31, EPOCH, 2, mask(Category.SPORT), 1.0);
+
+        int[] reported = new int[userIds.length];
+        roundStore.voteBatch(2, EPOCH, 1.0, userIds, masks, userIds.length, reported);
+
+        assertEquals(0b110, reported[0]);
+        assertEquals(RoundStore.DUPLICATE, reported[1]);
+        assertEquals(0b100, reported[199]);
+        assertEquals(200, roundStore.size());
+        assertEquals(Category.ofOrdinal(199 % Category.COUNT).ordinal(), roundStore.peekVerdict(199 * 31, EPOCH));
+    }
+
+    @Test
+    void commit_ShouldReturnWinnerAndRemoveRound() {
+        roundStore.vote(7, EPOCH, 0, mask(Category.GAMING), 2.0);
+        roundStore.vote(7, EPOCH, 1, mask(Category.GAMING), 2.0);
+        roundStore.vote(7, EPOCH, 2, mask(Category.SPORT), 0.5);
+
+        assertEquals(Category.GAMING.ordinal(), roundStore.commit(7, EPOCH));
+        assertEquals(RoundStore.NO_ROUND, roundStore.commit(7, EPOCH));
+        assertEquals(0, roundStore.size());
+    }
+
+    @Test
+    void commit_WhenLeadBelowEpsilon_ShouldReturnNoVerdict() {
+        roundStore.vote(3, EPOCH, 0, mask(Category.GAMING), 1.0);
+        roundStore.vote(3, EPOCH, 1, mask(Category.SPORT), 0.9);
+
+        assertEquals(RoundStore.NO_VERDICT, roundStore.commit(3, EPOCH));
+    }
+
+    @Test
+    void vote_WithSeveralCategories_ShouldSplitWeight() {
+        roundStore.vote(5, EPOCH, 0, mask(Category.MUSIC, Category.SPORT), 2.0);
+        roundStore.vote(5, EPOCH, 1, mask(Category.SPORT), 0.5);
+
+        // SPORT 1.5 vs MUSIC 1.0 -> (1.5 - 1.0) / 2.5 = 0.2
+        assertEquals(Category.SPORT.ordinal(), roundStore.commit(5, EPOCH));
+    }
+
+    @Test
+    void vote_WithUnknownCategory_ShouldReportWithoutWeight() {
+        roundStore.vote(9, EPOCH, 0, Category.parseMask("1234"), 2.0);
+        roundStore.vote(9, EPOCH, 1, Category.parseMask("MOVIES"), 0.5);
+
+        assertEquals(0b11, roundStore.reportedMask(9, EPOCH));
+        assertEquals(Category.MOVIES.ordinal(), roundStore.commit(9, EPOCH));
+    }
+
+    @Test
+    void store_ShouldSurviveGrowAndRemoveOfManyUsers() {
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int userId = 0; userId < 5_000; userId++) {
+            Category category = Category.ofOrdinal(userId % Category.COUNT);
+            roundStore.vote(userId, EPOCH, 0, mask(category), 1.0);
+            expected.put(userId, category.ordinal());
+        }
+
+        for (int userId = 0; userId < 5_000; userId += 2) {
+            assertEquals(expected.get(userId), roundStore.commit(userId, EPOCH));
+        }
+
+        assertEquals(2_500, roundStore.size());
+
+        for (int userId = 1; userId < 5_000; userId += 2) {
+            assertEquals(expected.get(userId), roundStore.peekVerdict(userId, EPOCH));
+        }
+    }
+
+    @Test
+    void store_WithSingleSegment_ShouldAcceptVotes() {
+        RoundStore single = new RoundStore(1, 1);
+
+        for (int userId = 0; userId < 100; userId++) {
+            single.vote(userId, EPOCH, 0, mask(Category.MUSIC), 1.0);
+        }
+
+        assertEquals(100, single.size());
+        assertEquals(Category.MUSIC.ordinal(), single.commit(42, EPOCH));
+    }
+
+    @Test
+    void expire_ShouldRemoveOnlyRoundsOpenedBeforeCutoff() {
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH, 4, mask(Category.MUSIC), 2.0);
+        roundStore.vote(2, EPOCH, 0, mask(Category.SPORT), 0.5);
+
+        assertEquals(0, roundStore.expire(0, (u, e, m, w, v, t, l) -> fail()));
+
+        Map<Integer, Double> quorum = new HashMap<>();
+        Map<Integer, Integer> verdicts = new HashMap<>();
+
+        int expired = roundStore.expire(Long.MAX_VALUE, (userId, epoch, reportedMask, reportedWeight, verdict, openedAt, lastVoteAt) -> {
+            quorum.put(userId, reportedWeight);
+            verdicts.put(userId, verdict);
+        });
+
+        assertEquals(2, expired);
+        assertEquals(4.0, quorum.get(1));
+        assertEquals(0.5, quorum.get(2));
+        assertEquals(Category.MUSIC.ordinal(), verdicts.get(1));
+        assertEquals(0, roundStore.size());
+    }
+
+    @Test
+    void vote_WhenMissingServicesCannotFlipVerdict_ShouldReturnDecided() {
+        roundStore.setServiceWeights("2.0,0.5,1.0,1.0,2.0,0.6,0.9");
+
+        // 4.0 za MUSIC, brakuje 4.0 – wciąż do odwrócenia
+        assertEquals(0, roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0) & RoundStore.DECIDED);
+        assertEquals(0, roundStore.vote(1, EPOCH, 4, mask(Category.MUSIC), 2.0) & RoundStore.DECIDED);
+
+        // 5.0 za MUSIC, brakuje 3.0: 5 - 0 - 3 >= 0.15 * 8
+        int reported = roundStore.vote(1, EPOCH, 2, mask(Category.MUSIC), 1.0);
+        assertNotEquals(0, reported & RoundStore.DECIDED);
+        assertEquals(0b10101, reported & ~RoundStore.DECIDED);
+
+        RoundStore.Closed closed = roundStore.close(1, EPOCH);
+        assertEquals(Category.MUSIC.ordinal(), closed.verdict());
+        assertEquals(0, roundStore.size());
+    }
+
+    @Test
+    void vote_HeavierThanItsBound_ShouldNotFlipDecidedRound() {
+        roundStore.setServiceWeights("2.0,0.5,1.0,1.0,2.0,0.6,0.9");
+
+        // 3.0 za MUSIC, reszta bez kategorii – brakuje tylko Service5 (granica 2.0): 3 - 2 >= 0.15 * 5
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH, 2, mask(Category.MUSIC), 1.0);
+        roundStore.vote(1, EPOCH, 1, 0, 0.5);
+        roundStore.vote(1, EPOCH, 3, 0, 1.0);
+        roundStore.vote(1, EPOCH, 5, 0, 0.6);
+        int reported = roundStore.vote(1, EPOCH, 6, 0, 0.9);
+        assertNotEquals(0, reported & RoundStore.DECIDED);
+
+        // Service5 uruchomiony z satellite.weight=3.0 – przy pełnej wadze 3:3 i brak werdyktu
+        roundStore.vote(1, EPOCH, 4, mask(Category.SPORT), 3.0);
+
+        assertEquals(Category.MUSIC.ordinal(), roundStore.peekVerdict(1, EPOCH));
+        assertEquals(Category.MUSIC.ordinal(), roundStore.commit(1, EPOCH));
+    }
+
+    @Test
+    void vote_WithoutServiceWeights_ShouldNeverDecideEarly() {
+        for (int service = 0; service < 6; service++) {
+            assertEquals(0, roundStore.vote(1, EPOCH, service, mask(Category.MUSIC), 2.0) & RoundStore.DECIDED);
+        }
+    }
+
+    @Test
+    void vote_AfterEarlyCommit_ShouldReturnLateOrDuplicate() {
+        roundStore.setServiceWeights("2.0,0.5,1.0,1.0,2.0,0.6,0.9");
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH, 4, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH, 2, mask(Category.MUSIC), 1.0);
+        roundStore.close(1, EPOCH);
+
+        assertEquals(RoundStore.LATE, roundStore.vote(1, EPOCH, 1, mask(Category.SPORT), 0.5));
+        assertEquals(RoundStore.NO_ROUND, roundStore.peekVerdict(1, EPOCH));
+        assertEquals(0, roundStore.reportedMask(1, EPOCH));
+
+        // ten sam serwis w tej samej epoce – powtórka, nie nowa runda
+        assertEquals(RoundStore.DUPLICATE, roundStore.vote(1, EPOCH, 0, mask(Category.SPORT), 2.0));
+        assertEquals(0, roundStore.size());
+    }
+
+    @Test
+    void vote_InDifferentEpochs_ShouldKeepSeparateRounds() {
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH + 1, 0, mask(Category.SPORT), 2.0);
+        roundStore.vote(1, EPOCH + 1, 5, mask(Category.SPORT), 0.6);
+
+        assertEquals(0b1, roundStore.reportedMask(1, EPOCH));
+        assertEquals(0b100001, roundStore.reportedMask(1, EPOCH + 1));
+        assertEquals(Category.MUSIC.ordinal(), roundStore.peekVerdict(1, EPOCH));
+        assertEquals(Category.SPORT.ordinal(), roundStore.peekVerdict(1, EPOCH + 1));
+        assertEquals(2, roundStore.size());
+
+        assertEquals(Category.SPORT.ordinal(), roundStore.commit(1, EPOCH + 1));
+        assertEquals(0b1, roundStore.reportedMask(1, EPOCH));
+    }
+
+    @Test
+    void expire_ShouldDropTombstonesWithoutReportingThem() {
+        roundStore.setServiceWeights("2.0,0.5,1.0,1.0,2.0,0.6,0.9");
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH, 4, mask(Category.MUSIC), 2.0);
+        roundStore.vote(1, EPOCH, 2, mask(Category.MUSIC), 1.0);
+        roundStore.close(1, EPOCH);
+
+        assertEquals(0, roundStore.expire(Long.MAX_VALUE, (u, e, m, w, v, t, l) -> fail()));
+
+        // po deadline tombstone znika – głos otwiera nową rundę
+        assertEquals(0b10, roundStore.vote(1, EPOCH, 1, mask(Category.SPORT), 0.5));
+    }
+
+    @Test
+    void voteBroadcast_ShouldReachOpenRoundsAndRoundsOpenedLater() {
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        roundStore.vote(2, EPOCH, 0, mask(Category.SPORT), 2.0);
+        roundStore.vote(3, EPOCH + 1, 0, mask(Category.MUSIC), 2.0);
+
+        Map<Integer, Integer> reached = new HashMap<>();
+        assertEquals(2, roundStore.voteBroadcast(4, EPOCH, mask(Category.MUSIC), 2.0,
+                (userId, epoch, reported) -> reached.put(userId, reported)));
+
+        assertEquals(Map.of(1, 0b10001, 2, 0b10001), reached);
+        assertEquals(0b1, roundStore.reportedMask(3, EPOCH + 1));
+
+        // runda otwarta po broadcaście zaczyna od stałego głosu
+        assertEquals(0b10100, roundStore.vote(5, EPOCH, 2, mask(Category.SPORT), 1.0));
+        assertEquals(Category.MUSIC.ordinal(), roundStore.peekVerdict(5, EPOCH));
+        assertEquals(RoundStore.DUPLICATE, roundStore.vote(6, EPOCH, 4, mask(Category.SPORT), 2.0));
+
+        assertEquals(RoundStore.DUPLICATE, roundStore.voteBroadcast(4, EPOCH, mask(Category.SPORT), 2.0,
+                (userId, epoch, reported) -> fail()));
+    }
+
+    @Test
+    void voteBroadcast_ShouldGoAwayWithRoundDeadline() {
+        roundStore.voteBroadcast(4, EPOCH, mask(Category.MUSIC), 2.0, (userId, epoch, reported) -> fail());
+        assertEquals(0, roundStore.size());
+
+        roundStore.expire(Long.MAX_VALUE, (u, e, m, w, v, t, l) -> fail());
+
+        assertEquals(0b1, roundStore.vote(1, EPOCH, 0, mask(Category.SPORT), 2.0));
+    }
+
+    @Test
+    void checkpoint_ShouldVisitCopyAfterReleasingLocks() {
+        roundStore.vote(1, EPOCH, 0, mask(Category.MUSIC), 2.0);
+        List<Integer> visited = new ArrayList<>();
+
+        roundStore.checkpoint((userId, epoch, reportedMask, openedAt, reportedWeight, weights, offset) -> {
+            visited.add(reportedMask);
+            // głos z innego wątku nie czeka, aż snapshot zostanie zakodowany
+            int reported = CompletableFuture
+                    .supplyAsync(() -> roundStore.vote(userId, epoch, 2, mask(Category.SPORT), 1.0))
+                    .orTimeout(5, TimeUnit.SECONDS)
+                    .join();
+            assertEquals(0b101, reported);
+        }, () -> {});
+
+        assertEquals(List.of(0b001), visited);
+        assertEquals(0b101, roundStore.reportedMask(1, EPOCH));
+    }
+
+    @Test
+    void parseMask_ShouldIgnoreUnknownNames() {
+        assertEquals(0, Category.parseMask("NONE"));
+        assertEquals(0, Category.parseMask(null));
+        assertEquals(mask(Category.MUSIC, Category.SPORT), Category.parseMask("MUSIC,SPORT"));
+        assertEquals(mask(Category.EDUCATION), Category.parseMask("education"));
+    }
+}
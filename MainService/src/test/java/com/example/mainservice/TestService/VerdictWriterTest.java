@@ -0,0 +1,116 @@
+package com.example.mainservice.TestService;
+
+import com.example.mainservice.DTO.RecommendationEntry;
+import com.example.mainservice.Service.RecommendationClient;
+import com.example.mainservice.Service.VerdictWriter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerdictWriterTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_ShouldCoalescePerUserAndFlushOneBatch() {
+        RecommendationClient client = mock(RecommendationClient.class);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(true);
+
+        VerdictWriter writer = new VerdictWriter(client, 100, 60_000);
+
+        writer.submit(1, "MUSIC");
+        writer.submit(2, "SPORT");
+        writer.submit(1, "GAMING");
+
+        assertEquals(2, writer.pendingCount());
+        verifyNoInteractions(client);
+
+        writer.shutdown();
+
+        ArgumentCaptor<List<RecommendationEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client, times(1)).saveRecommendations(anyLong(), captor.capture());
+        assertEquals(
+                List.of(new RecommendationEntry(1, "GAMING"), new RecommendationEntry(2, "SPORT")),
+                captor.getValue()
+        );
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    void flush_WhenSaveFails_ShouldKeepVerdictsPending() {
+        RecommendationClient client = mock(RecommendationClient.class);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(false);
+
+        VerdictWriter writer = new VerdictWriter(client, 100, 60_000);
+        writer.submit(1, "MUSIC");
+
+        writer.shutdown();
+
+        assertEquals(1, writer.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_AfterFailedSaves_ShouldSendAtMostBatchSizePerRequest() {
+        RecommendationClient client = mock(RecommendationClient.class);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(false);
+
+        VerdictWriter writer = new VerdictWriter(client, 2, 60_000);
+        for (int userId = 1; userId <= 5; userId++) {
+            writer.submit(userId, "MUSIC");
+        }
+        writer.shutdown();
+        assertEquals(5, writer.pendingCount());
+
+        // SafeLogin wraca – zaległe werdykty idą paczkami po batchSize
+        reset(client);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(true);
+        writer.shutdown();
+
+        ArgumentCaptor<List<RecommendationEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client, times(3)).saveRecommendations(anyLong(), captor.capture());
+        assertEquals(List.of(2, 2, 1), captor.getAllValues().stream().map(List::size).toList());
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    void flush_AfterUnconfirmedSave_ShouldRetrySameBatchId() {
+        RecommendationClient client = mock(RecommendationClient.class);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(false);
+
+        VerdictWriter writer = new VerdictWriter(client, 100, 60_000);
+        writer.submit(1, "MUSIC");
+        writer.shutdown();
+
+        ArgumentCaptor<Long> first = ArgumentCaptor.forClass(Long.class);
+        verify(client).saveRecommendations(first.capture(), anyList());
+
+        // nowszy werdykt nie nadpisuje niepotwierdzonej paczki – idzie po niej, w nowej
+        reset(client);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(true);
+        writer.submit(1, "SPORT");
+        writer.shutdown();
+
+        ArgumentCaptor<Long> retried = ArgumentCaptor.forClass(Long.class);
+        verify(client, times(2)).saveRecommendations(retried.capture(), anyList());
+        assertEquals(first.getValue(), retried.getAllValues().get(0));
+        assertNotEquals(first.getValue(), retried.getAllValues().get(1));
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    void submit_WhenBatchSizeReached_ShouldFlushWithoutWaitingForTimer() {
+        RecommendationClient client = mock(RecommendationClient.class);
+        when(client.saveRecommendations(anyLong(), anyList())).thenReturn(true);
+
+        VerdictWriter writer = new VerdictWriter(client, 2, 60_000);
+        writer.submit(1, "MUSIC");
+        writer.submit(2, "MUSIC");
+
+        verify(client, timeout(2_000)).saveRecommendations(anyLong(), anyList());
+        writer.shutdown();
+    }
+}
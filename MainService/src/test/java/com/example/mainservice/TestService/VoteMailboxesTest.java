@@ -0,0 +1,191 @@
+package com.example.mainservice.TestService;
+
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Model.Satellites;
+import com.example.mainservice.Service.RoundStore;
+import com.example.mainservice.Service.VoteMailboxes;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteMailboxesTest {
+
+    private static final long EPOCH = 1;
+
+    @Test
+    void execute_ShouldRunTasksOfOneUserOnOneThreadInOrder() throws Exception {
+        VoteMailboxes mailboxes = new VoteMailboxes(new RoundStore(16, 64), 4);
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            int step = i;
+            mailboxes.execute(42, () -> {
+                order.add(step);
+                threads.add(Thread.currentThread().getName());
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, order.get(i));
+        }
+        assertEquals(1, threads.stream().distinct().count());
+
+        mailboxes.shutdown();
+    }
+
+    @Test
+    void executeSegments_ShouldRunEverySegmentOnTheStripeOfItsUsers() throws Exception {
+        RoundStore store = new RoundStore(16, 64);
+        VoteMailboxes mailboxes = new VoteMailboxes(store, 4);
+
+        // segment -> wątek, na którym lądują zwykłe głosy jego użytkowników
+        ConcurrentHashMap<Integer, String> userThreads = new ConcurrentHashMap<>();
+        CountDownLatch users = new CountDownLatch(store.segmentCount());
+        boolean[] covered = new boolean[store.segmentCount()];
+
+        for (int userId = 0; users.getCount() > 0 && userId < 100_000; userId++) {
+            int segment = store.segmentIndex(userId);
+            if (covered[segment]) {
+                continue;
+            }
+            covered[segment] = true;
+            mailboxes.execute(userId, () -> {
+                userThreads.put(segment, Thread.currentThread().getName());
+                users.countDown();
+            });
+        }
+        assertTrue(users.await(5, TimeUnit.SECONDS));
+
+        ConcurrentHashMap<Integer, String> segmentThreads = new ConcurrentHashMap<>();
+        AtomicInteger finished = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        mailboxes.executeSegments(
+                segment -> segmentThreads.put(segment, Thread.currentThread().getName()),
+                () -> {
+                    finished.incrementAndGet();
+                    done.countDown();
+                }
+        );
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(userThreads, segmentThreads);
+        assertEquals(1, finished.get());
+
+        mailboxes.shutdown();
+    }
+
+    @Test
+    void executeBatch_ShouldSplitByStripeAndFinishOnce() throws Exception {
+        RoundStore store = new RoundStore(16, 64);
+        VoteMailboxes mailboxes = new VoteMailboxes(store, 4);
+
+        int[] userIds = new int[1_000];
+        int[] masks = new int[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = i;
+            masks[i] = 1 << (i % Category.COUNT);
+        }
+
+        AtomicInteger seen = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        // segment -> wątek, który go obsłużył
+        ConcurrentHashMap<Integer, String> owners = new ConcurrentHashMap<>();
+
+        mailboxes.executeBatch(userIds, masks, userIds.length,
+                (sliceUsers, sliceMasks, count) -> {
+                    for (int i = 0; i < count; i++) {
+                        assertEquals(1 << (sliceUsers[i] % Category.COUNT), sliceMasks[i]);
+                        String previous = owners.putIfAbsent(
+                                store.segmentIndex(sliceUsers[i]),
+                                Thread.currentThread().getName()
+                        );
+                        assertTrue(previous == null || previous.equals(Thread.currentThread().getName()));
+                    }
+                    seen.addAndGet(count);
+                },
+                () -> {
+                    finished.incrementAndGet();
+                    done.countDown();
+                });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(userIds.length, seen.get());
+        assertEquals(1, finished.get());
+
+        mailboxes.shutdown();
+    }
+
+    @Test
+    void concurrentVotes_ShouldCompleteEveryRoundExactlyOnce() throws Exception {
+        RoundStore store = new RoundStore(16, 1024);
+        VoteMailboxes mailboxes = new VoteMailboxes(store, 4);
+
+        int users = 5_000;
+        AtomicInteger[] verdicts = new AtomicInteger[users];
+        for (int u = 0; u < users; u++) {
+            verdicts[u] = new AtomicInteger();
+        }
+
+        CountDownLatch processed = new CountDownLatch(users * Satellites.NAMES.size());
+        ExecutorService inbound = Executors.newFixedThreadPool(Satellites.NAMES.size());
+
+        // siedem "wątków inbound", każdy jak jedna satelita
+        for (int service = 0; service < Satellites.NAMES.size(); service++) {
+            int serviceIndex = service;
+            inbound.execute(() -> {
+                for (int userId = 0; userId < users; userId++) {
+                    int user = userId;
+                    mailboxes.execute(user, () -> {
+                        int reported = store.vote(user, EPOCH, serviceIndex, 1 << Category.MUSIC.ordinal(), 1.0);
+                        if (reported == Satellites.ALL_MASK && store.commit(user, EPOCH) != RoundStore.NO_ROUND) {
+                            verdicts[user].incrementAndGet();
+                        }
+                        processed.countDown();
+                    });
+                }
+            });
+        }
+
+        assertTrue(processed.await(10, TimeUnit.SECONDS));
+        inbound.shutdown();
+
+        for (int u = 0; u < users; u++) {
+            assertEquals(1, verdicts[u].get(), "user " + u);
+        }
+        assertEquals(0, store.size());
+
+        mailboxes.shutdown();
+    }
+
+    @Test
+    void zeroMailboxes_ShouldRunInlineOnCaller() {
+        VoteMailboxes mailboxes = new VoteMailboxes(new RoundStore(4, 16), 0);
+        String caller = Thread.currentThread().getName();
+
+        List<String> threads = new ArrayList<>();
+        mailboxes.execute(1, () -> threads.add(Thread.currentThread().getName()));
+        mailboxes.executeBatch(new int[]{1, 2}, new int[]{1, 1}, 2,
+                (users, masks, count) -> threads.add(Thread.currentThread().getName()),
+                () -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(List.of(caller, caller, caller), threads);
+        assertEquals(0, mailboxes.stripeCount());
+    }
+}
@@ -45,6 +45,7 @@ public class SecurityConfig {
                         "/subscriber/**",
                         "/getSubscriptions/**",
                         "/videosByUser/**",
+                        "/videosByOwners/**",
                         "/users/**",
                         "/AllVideos/**")
 
@@ -0,0 +1,73 @@
+package com.webproject.safelogin.config;
+
+import com.webproject.safelogin.service.ActivityEventRelay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// Uwierzytelnienie MainService na STOMP: CONNECT z poprawnym X-SERVICE-KEY = sesja ROLE_SERVICE.
+// Dla poprawnego klucza wstawia token CSRF (MainService nie ma sesji przeglądarki); temat aktywności tylko dla serwisów
+@Component
+public class ServiceStompInterceptor implements ChannelInterceptor {
+
+    public static final String HEADER = "X-SERVICE-KEY";
+
+    @Value("${security.service-api-key}")
+    private String serviceApiKey;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor =
+                MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor != null && isServiceConnect(accessor)) {
+            accessor.setUser(serviceAuthentication());
+
+            Map<String, Object> session = accessor.getSessionAttributes();
+            if (session != null && session.get(CsrfToken.class.getName()) instanceof CsrfToken csrf) {
+                accessor.setNativeHeader(csrf.getHeaderName(), csrf.getToken());
+            }
+        }
+
+        if (accessor != null
+                && StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && ActivityEventRelay.TOPIC.equals(accessor.getDestination())
+                && !isService(accessor.getUser())) {
+            throw new AccessDeniedException("Activity events are for services only");
+        }
+
+        return message;
+    }
+
+    private boolean isServiceConnect(StompHeaderAccessor accessor) {
+        return StompCommand.CONNECT.equals(accessor.getCommand())
+                && serviceApiKey != null
+                && serviceApiKey.equals(accessor.getFirstNativeHeader(HEADER));
+    }
+
+    public static boolean isService(Object principal) {
+        return principal instanceof Authentication authentication
+                && authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_SERVICE"));
+    }
+
+    private static Authentication serviceAuthentication() {
+        return new UsernamePasswordAuthenticationToken(
+                "MAIN_SERVICE",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_SERVICE"))
+        );
+    }
+}
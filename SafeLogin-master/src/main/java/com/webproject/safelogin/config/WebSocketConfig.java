@@ -1,6 +1,9 @@
 package com.webproject.safelogin.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,8 +13,15 @@ import org.springframework.web.socket.server.support.HttpSessionHandshakeInterce
 
 @Configuration
 @EnableWebSocketMessageBroker
+@Order(Ordered.HIGHEST_PRECEDENCE + 99) // przed Spring Security – użytkownik ustawiony już przy CONNECT
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ServiceStompInterceptor serviceStompInterceptor;
+
+    public WebSocketConfig(ServiceStompInterceptor serviceStompInterceptor) {
+        this.serviceStompInterceptor = serviceStompInterceptor;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
@@ -31,4 +41,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user"); // dla wiadomości prywatnych
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // MainService łączy się z X-SERVICE-KEY w CONNECT
+        registration.interceptors(serviceStompInterceptor);
+    }
 }
@@ -1,11 +1,16 @@
 package com.webproject.safelogin.controller;
 
+import com.webproject.safelogin.model.ActivityChange;
 import com.webproject.safelogin.model.LikedVideoDTO;
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.LikeService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -14,9 +19,11 @@ import java.util.List;
 public class LikeController {
 
     private final LikeService likeService;
+    private final ContentVersions contentVersions;
 
-    public LikeController(LikeService likeService) {
+    public LikeController(LikeService likeService, ContentVersions contentVersions) {
         this.likeService = likeService;
+        this.contentVersions = contentVersions;
     }
 
     @PostMapping("/users/{userId}/like/{videoId}")
@@ -37,10 +44,21 @@ public class LikeController {
         return ResponseEntity.ok("Usunięto like z video " + videoId);
     }
 
+    // ?since=<kursor> – tylko zmiany po kursorze (feed satelit)
+    // If-None-Match z ostatnim ETagiem – 304 bez zapytania do bazy
     @GetMapping("/users/{userId}/liked")
-    public ResponseEntity<List<LikedVideoDTO>> likedVideos(@PathVariable int userId) {
+    public ResponseEntity<?> likedVideos(
+            @PathVariable int userId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String etag = contentVersions.listTag(ActivityChange.Kind.LIKED, userId);
+
+        if (since != null) {
+            return contentVersions.respond(ifNoneMatch, etag, () -> likeService.getLikeChanges(userId, since));
+        }
 
-        return ResponseEntity.ok(
+        return contentVersions.respond(ifNoneMatch, etag, () ->
                 likeService.getLikedVideos(userId).stream()
                         .map(v -> new LikedVideoDTO(
                                 v.getId(),
@@ -1,18 +1,41 @@
 package com.webproject.safelogin.controller;
 
+import com.webproject.safelogin.config.ServiceStompInterceptor;
+import com.webproject.safelogin.model.RecommendationBatch;
+import com.webproject.safelogin.model.RecommendationBatchAck;
+import com.webproject.safelogin.model.RecommendationBatchItem;
 import com.webproject.safelogin.model.RecommendationDTO;
 import com.webproject.safelogin.service.RecommendationService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/recommendations")
 public class RecommendationController {
 
+    // ostatnie paczki MainService: batchId -> zapisane wiersze; IN_PROGRESS = ta sama paczka jeszcze się zapisuje
+    private static final int RECENT_BATCHES = 4096;
+    private static final int IN_PROGRESS = -1;
+
     private final RecommendationService recommendationService;
 
+    private final Map<Long, Integer> recentBatches = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+            return size() > RECENT_BATCHES;
+        }
+    };
+
     public RecommendationController(RecommendationService recommendationService) {
         this.recommendationService = recommendationService;
     }
@@ -34,6 +57,64 @@ public class RecommendationController {
         recommendationService.addRecommendation(userId, category);
         return ResponseEntity.ok().build();
     }
+
+    // zbiorczy zapis werdyktów z MainService – jedno żądanie na wiele userów
+    @PostMapping("/batch")
+    public ResponseEntity<Integer> addRecommendations(
+            @RequestHeader(value = "X-Batch-Id", required = false) Long batchId,
+            @RequestBody List<RecommendationBatchItem> items) {
+
+        int saved = batchId == null
+                ? recommendationService.addRecommendations(items)
+                : saveOnce(batchId, items);
+
+        return saved < 0
+                ? ResponseEntity.status(HttpStatus.CONFLICT).body(saved)
+                : ResponseEntity.ok(saved);
+    }
+
+    // to samo po stałym połączeniu STOMP z MainService – bez żądania HTTP na paczkę
+    @MessageMapping("/recommendations.batch")
+    @SendToUser(destinations = "/queue/recommendations.ack", broadcast = false)
+    public RecommendationBatchAck addRecommendations(
+            @Payload RecommendationBatch batch,
+            Principal principal) {
+
+        if (!ServiceStompInterceptor.isService(principal)) {
+            throw new AccessDeniedException("Recommendation batches are accepted from services only");
+        }
+
+        return new RecommendationBatchAck(
+                batch.batchId(),
+                saveOnce(batch.batchId(), batch.items())
+        );
+    }
+
+    // MainService ponawia paczkę z tym samym batchId, gdy ACK nie zdążył – powtórka nie wstawia wierszy drugi raz;
+    // powtórka w trakcie pierwszego zapisu dostaje IN_PROGRESS i MainService spróbuje później
+    private int saveOnce(long batchId, List<RecommendationBatchItem> items) {
+        synchronized (recentBatches) {
+            Integer saved = recentBatches.get(batchId);
+            if (saved != null) {
+                return saved;
+            }
+            recentBatches.put(batchId, IN_PROGRESS);
+        }
+
+        try {
+            int saved = recommendationService.addRecommendations(items);
+            synchronized (recentBatches) {
+                recentBatches.put(batchId, saved);
+            }
+            return saved;
+        } catch (RuntimeException e) {
+            synchronized (recentBatches) {
+                recentBatches.remove(batchId);
+            }
+            throw e;
+        }
+    }
+
     @GetMapping("/user/{userId}/latest")
     public ResponseEntity<RecommendationDTO> getLatestUserRecommendation(
             @PathVariable int userId) {
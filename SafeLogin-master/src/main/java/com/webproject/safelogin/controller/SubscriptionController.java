@@ -1,12 +1,17 @@
 package com.webproject.safelogin.controller;
 
+import com.webproject.safelogin.model.ActivityChange;
 import com.webproject.safelogin.model.SubscriptionDTO;
 import com.webproject.safelogin.model.User;
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.SubscriptionService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
@@ -18,9 +23,11 @@ import java.util.stream.Collectors;
 @RestController
 public class SubscriptionController {
     private final SubscriptionService subscriptionService;
+    private final ContentVersions contentVersions;
 
-    public SubscriptionController(SubscriptionService subscriptionService) {
+    public SubscriptionController(SubscriptionService subscriptionService, ContentVersions contentVersions) {
         this.subscriptionService = subscriptionService;
+        this.contentVersions = contentVersions;
     }
 
     @PostMapping("subscriber/{subscriberId}/subscribeTarget/{targetId}")
@@ -39,11 +46,21 @@ public class SubscriptionController {
         return ResponseEntity.ok("Odsubskrybowano użytkownika " + targetId);
     }
 
+    // ?since=<kursor> – tylko zmiany po kursorze (feed satelit)
+    // If-None-Match z ostatnim ETagiem – 304 bez zapytania do bazy
     @GetMapping("/getSubscriptions/{userId}")
-    public ResponseEntity<List<SubscriptionDTO>> getSubscriptions(
-            @PathVariable Integer userId
+    public ResponseEntity<?> getSubscriptions(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(
+        String etag = contentVersions.listTag(ActivityChange.Kind.SUBSCRIBED, userId);
+
+        if (since != null) {
+            return contentVersions.respond(ifNoneMatch, etag, () -> subscriptionService.getSubscriptionChanges(userId, since));
+        }
+
+        return contentVersions.respond(ifNoneMatch, etag, () ->
                 subscriptionService.getSubscriptions(userId)
                         .stream()
                         .map(u -> new SubscriptionDTO(
@@ -3,6 +3,7 @@ package com.webproject.safelogin.controller;
 import com.webproject.safelogin.Dto.Login;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.repository.UserRepository;
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -35,6 +36,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ContentVersions contentVersions;
+
     private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
 
     private boolean isPasswordValid(String password) {
@@ -68,6 +72,7 @@ public class UserController {
         // Zapis sekretu do użytkownika
         newUser.setTotpSecret(secret);
         userRepository.save(newUser);
+        contentVersions.usersChanged();
 
         // Generowanie QR kodu (opcjonalnie – np. jeśli frontend chce base64 obrazka)
         String qrCode = util.TotpUtil.generateQrCode(otpAuthURL);
@@ -2,7 +2,11 @@ package com.webproject.safelogin.controller;
 
 import com.webproject.safelogin.model.UserDTO;
 import com.webproject.safelogin.repository.UserRepository;
+import com.webproject.safelogin.service.ContentVersions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,16 +17,23 @@ import java.util.List;
 public class UserServiceController {
 
     private final UserRepository userRepository;
+    private final ContentVersions contentVersions;
 
-    public UserServiceController(UserRepository userRepository) {
+    public UserServiceController(UserRepository userRepository, ContentVersions contentVersions) {
         this.userRepository = userRepository;
+        this.contentVersions = contentVersions;
     }
 
+    // If-None-Match z ostatnim ETagiem – 304 bez zapytania do bazy
     @GetMapping("/all")
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(u -> new UserDTO(u.getId(), u.getNick()))
-                .toList();
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return contentVersions.respond(ifNoneMatch, contentVersions.usersTag(), () ->
+                userRepository.findAll()
+                        .stream()
+                        .map(u -> new UserDTO(u.getId(), u.getNick()))
+                        .toList()
+        );
     }
 }
\ No newline at end of file
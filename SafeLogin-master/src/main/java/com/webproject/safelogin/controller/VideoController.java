@@ -4,8 +4,11 @@ package com.webproject.safelogin.controller;
 import com.webproject.safelogin.model.*;
 import com.webproject.safelogin.repository.UserRepository;
 import com.webproject.safelogin.repository.VideoRepository;
+import com.webproject.safelogin.service.ActivityFeedService;
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.SubscriptionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +26,10 @@ public class VideoController {
     private UserRepository userRepository;
     @Autowired
     private SubscriptionService subscriptionService;
+    @Autowired
+    private ActivityFeedService activityFeedService;
+    @Autowired
+    private ContentVersions contentVersions;
 
     @PostMapping("/addVideo")
     public ResponseEntity<String> addVideo(@RequestBody VideoDTO videoDTO) {
@@ -41,7 +48,9 @@ public class VideoController {
             );
         }
 
-        videoRepository.save(video);
+        Video saved = videoRepository.save(video);
+        activityFeedService.videoAdded(owner.getId(), saved.getId(), saved.getCategory());
+
         return ResponseEntity.ok("Video saved");
     }
 
@@ -63,25 +72,39 @@ public class VideoController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // If-None-Match z ostatnim ETagiem – 304 bez zapytania do bazy
     @GetMapping("/AllVideos")
-    public List<VideoResponseDTO> getAllVideos() {
-        return videoRepository.findAll().stream()
-                .map(video -> new VideoResponseDTO(
-                        video.getId(),
-                        video.getTitle(),
-                        video.getUrl(),
-                        video.getOwner().getId(),
-                        video.getOwner().getNick(),
-                        video.getCategory() != null
-                                ? video.getCategory().name()
-                                : null
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<VideoResponseDTO>> getAllVideos(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return contentVersions.respond(ifNoneMatch, contentVersions.videosTag(), () ->
+                videoRepository.findAll().stream()
+                        .map(video -> new VideoResponseDTO(
+                                video.getId(),
+                                video.getTitle(),
+                                video.getUrl(),
+                                video.getOwner().getId(),
+                                video.getOwner().getNick(),
+                                video.getCategory() != null
+                                        ? video.getCategory().name()
+                                        : null
+                        ))
+                        .collect(Collectors.toList())
+        );
     }
     @GetMapping("/videosByUser/{userId}")
     public List<VideoResponseDTO> getVideosByUser(@PathVariable Integer userId) {
-        return videoRepository.findAll().stream()
-                .filter(video -> video.getOwner() != null && video.getOwner().getId() == userId)
+        return getVideosByOwners(Set.of(userId));
+    }
+
+    // Filmy kilku właścicieli naraz, np. /videosByOwners?ids=3,7,12 – jedno zapytanie zamiast /videosByUser na właściciela
+    @GetMapping("/videosByOwners")
+    public List<VideoResponseDTO> getVideosByOwners(@RequestParam("ids") Set<Integer> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return List.of();
+        }
+
+        return videoRepository.findByOwnerIds(ownerIds).stream()
                 .map(video -> new VideoResponseDTO(
                         video.getId(),
                         video.getTitle(),
@@ -94,6 +117,16 @@ public class VideoController {
                 ))
                 .collect(Collectors.toList());
     }
+    // Liczniki kategorii kilku właścicieli (ownerId, category, videos), grupowane w bazie; filmy bez kategorii pomijane
+    @GetMapping("/videosByOwners/categories")
+    public List<OwnerCategoryCountDTO> getCategoryCountsByOwners(@RequestParam("ids") Set<Integer> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return List.of();
+        }
+
+        return videoRepository.countCategoriesByOwnerIds(ownerIds);
+    }
+
     @GetMapping("/subscribedVideos/{userId}")
     public List<VideoResponseDTO> getSubscribedVideos(@PathVariable Integer userId) {
         Set<User> subscriptions = subscriptionService.getSubscriptions(userId);
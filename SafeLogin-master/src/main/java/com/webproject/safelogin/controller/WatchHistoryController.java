@@ -1,11 +1,14 @@
 package com.webproject.safelogin.controller;
 
+import com.webproject.safelogin.model.ActivityChange;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.model.WatchHistoryDTO;
 import com.webproject.safelogin.model.Video;
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.WatchHistoryService;
 import com.webproject.safelogin.repository.UserRepository;
 import com.webproject.safelogin.repository.VideoRepository;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,15 +24,18 @@ public class WatchHistoryController {
     private final WatchHistoryService historyService;
     private final UserRepository userRepository;
     private final VideoRepository videoRepository;
+    private final ContentVersions contentVersions;
 
     public WatchHistoryController(
             WatchHistoryService historyService,
             UserRepository userRepository,
-            VideoRepository videoRepository
+            VideoRepository videoRepository,
+            ContentVersions contentVersions
     ) {
         this.historyService = historyService;
         this.userRepository = userRepository;
         this.videoRepository = videoRepository;
+        this.contentVersions = contentVersions;
     }
 
     // Dodajemy historię dla konkretnego użytkownika i wideo
@@ -46,8 +52,23 @@ public class WatchHistoryController {
     }
 
     // Pobieramy historię użytkownika po jego ID
+    // ?since=<kursor> – tylko zmiany po kursorze (feed satelit), 0 = pełna historia jako zmiany
+    // If-None-Match z ostatnim ETagiem – 304 bez zapytania do bazy
     @GetMapping("/get/{userId}")
-    public ResponseEntity<?> getHistory(@PathVariable Integer userId) {
+    public ResponseEntity<?> getHistory(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = contentVersions.listTag(ActivityChange.Kind.WATCHED, userId);
+
+        if (since != null) {
+            return contentVersions.respond(ifNoneMatch, etag, () -> historyService.getHistoryChanges(userId, since));
+        }
+        if (contentVersions.matches(ifNoneMatch, etag)) {
+            return contentVersions.notModified(etag);
+        }
+
         System.out.println("=== DEBUG: Getting history for userId: " + userId);
 
         try {
@@ -62,7 +83,7 @@ public class WatchHistoryController {
             List<WatchHistoryDTO> history = historyService.getUserHistory(userId);
             System.out.println("DTO list size: " + (history != null ? history.size() : "null"));
 
-            return ResponseEntity.ok(history);
+            return ResponseEntity.ok().eTag(etag).body(history);
         } catch (Exception e) {
             e.printStackTrace(); // Wydrukuj pełny stack trace
             throw e; // Przekaż dalej, żeby zobaczyć w logach
@@ -0,0 +1,80 @@
+package com.webproject.safelogin.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Dziennik zmian historii, polubień i subskrypcji: delta 1 = dodany, -1 = usunięty; id to kursor ?since=
+@Entity
+@Table(
+        name = "activity_change",
+        indexes = @Index(name = "idx_change_user_kind", columnList = "user_id, kind, id")
+)
+public class ActivityChange {
+
+    public enum Kind {
+        WATCHED,
+        LIKED,
+        SUBSCRIBED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    // id wideo (WATCHED, LIKED) albo kanału (SUBSCRIBED)
+    @Column(nullable = false)
+    private Integer refId;
+
+    @Enumerated(EnumType.STRING)
+    private Category category;
+
+    private int delta;
+
+    private LocalDateTime createdAt;
+
+    public ActivityChange() {}
+
+    public ActivityChange(Integer userId, Kind kind, Integer refId, Category category, int delta) {
+        this.userId = userId;
+        this.kind = kind;
+        this.refId = refId;
+        this.category = category;
+        this.delta = delta;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Integer getRefId() {
+        return refId;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.webproject.safelogin.model;
+
+// jeden element dodany (delta 1) albo usunięty (delta -1) z listy użytkownika
+public record ActivityChangeDTO(
+        Integer refId,
+        Category category,
+        int delta
+) {
+}
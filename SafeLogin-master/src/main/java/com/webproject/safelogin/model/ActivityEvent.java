@@ -0,0 +1,19 @@
+package com.webproject.safelogin.model;
+
+// zdarzenie na /topic/activity – kto co zrobił, dla satelit
+public record ActivityEvent(
+        Type type,
+        Integer userId,   // dla VIDEO_ADDED właściciel kanału
+        Integer refId,    // id wideo albo kanału (SUBSCRIBED, UNSUBSCRIBED)
+        Category category
+) {
+
+    public enum Type {
+        WATCHED,
+        LIKED,
+        UNLIKED,
+        SUBSCRIBED,
+        UNSUBSCRIBED,
+        VIDEO_ADDED
+    }
+}
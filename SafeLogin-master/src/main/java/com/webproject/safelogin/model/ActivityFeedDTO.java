@@ -0,0 +1,10 @@
+package com.webproject.safelogin.model;
+
+import java.util.List;
+
+// odpowiedź ?since= – zmiany po kursorze i nowy kursor na następne zapytanie
+public record ActivityFeedDTO(
+        long cursor,
+        List<ActivityChangeDTO> changes
+) {
+}
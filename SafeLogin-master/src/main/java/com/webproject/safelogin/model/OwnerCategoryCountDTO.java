@@ -0,0 +1,9 @@
+package com.webproject.safelogin.model;
+
+// ile filmów danej kategorii ma właściciel – odpowiedź /videosByOwners/categories
+public record OwnerCategoryCountDTO(
+        Integer ownerId,
+        Category category,
+        Long videos
+) {
+}
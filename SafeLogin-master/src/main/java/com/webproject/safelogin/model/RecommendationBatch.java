@@ -0,0 +1,10 @@
+package com.webproject.safelogin.model;
+
+import java.util.List;
+
+// paczka werdyktów z MainService po STOMP (/app/recommendations.batch)
+public record RecommendationBatch(
+        long batchId,
+        List<RecommendationBatchItem> items
+) {
+}
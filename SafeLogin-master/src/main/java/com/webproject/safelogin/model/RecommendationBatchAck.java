@@ -0,0 +1,8 @@
+package com.webproject.safelogin.model;
+
+// odpowiedź na /user/queue/recommendations.ack – ile rekomendacji z paczki zapisano
+public record RecommendationBatchAck(
+        long batchId,
+        int saved
+) {
+}
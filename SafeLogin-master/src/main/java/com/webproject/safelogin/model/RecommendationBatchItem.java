@@ -0,0 +1,7 @@
+package com.webproject.safelogin.model;
+
+public record RecommendationBatchItem(
+        int userId,
+        String category
+) {
+}
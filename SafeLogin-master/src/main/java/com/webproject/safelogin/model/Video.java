@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_video_owner_category", columnList = "owner_id, category"))
 public class Video {
     @Id
     @GeneratedValue
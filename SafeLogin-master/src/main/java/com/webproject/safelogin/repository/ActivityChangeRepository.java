@@ -0,0 +1,42 @@
+package com.webproject.safelogin.repository;
+
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.model.ActivityChangeDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ActivityChangeRepository extends JpaRepository<ActivityChange, Long> {
+
+    // kursor startowy jednej listy – cudze niezatwierdzone zmiany go nie przesuwają
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ActivityChange c " +
+            "WHERE c.userId = :userId AND c.kind = :kind")
+    long lastId(@Param("userId") Integer userId, @Param("kind") ActivityChange.Kind kind);
+
+    // zmiany po kursorze, w kolejności zapisu (indeks user_id, kind, id)
+    @Query("SELECT c FROM ActivityChange c " +
+            "WHERE c.userId = :userId AND c.kind = :kind AND c.id > :since " +
+            "ORDER BY c.id")
+    List<ActivityChange> findSince(
+            @Param("userId") Integer userId,
+            @Param("kind") ActivityChange.Kind kind,
+            @Param("since") long since
+    );
+
+    // obecna historia jako zmiany +1 – punkt startowy feedu (since=0)
+    @Query("SELECT new com.webproject.safelogin.model.ActivityChangeDTO(v.id, v.category, 1) " +
+            "FROM WatchHistory w JOIN w.video v " +
+            "WHERE w.user.id = :userId")
+    List<ActivityChangeDTO> currentHistory(@Param("userId") Integer userId);
+
+    @Query("SELECT new com.webproject.safelogin.model.ActivityChangeDTO(v.id, v.category, 1) " +
+            "FROM User u JOIN u.likedVideos v " +
+            "WHERE u.id = :userId")
+    List<ActivityChangeDTO> currentLikes(@Param("userId") Integer userId);
+
+    // kanały nie mają kategorii – same id
+    @Query("SELECT s.id FROM User u JOIN u.subscriptions s WHERE u.id = :userId")
+    List<Integer> currentSubscriptions(@Param("userId") Integer userId);
+}
@@ -1,10 +1,29 @@
 package com.webproject.safelogin.repository;
 
+import com.webproject.safelogin.model.OwnerCategoryCountDTO;
 import com.webproject.safelogin.model.Video;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface VideoRepository extends JpaRepository<Video, Integer> {
 
+    // filmy wielu właścicieli jednym zapytaniem (indeks owner_id), owner od razu
+    @Query("SELECT v FROM Video v " +
+            "JOIN FETCH v.owner o " +
+            "WHERE o.id IN :ownerIds")
+    List<Video> findByOwnerIds(@Param("ownerIds") Collection<Integer> ownerIds);
+
+    // same liczniki kategorii – liczone w bazie, bez wierszy filmów
+    @Query("SELECT new com.webproject.safelogin.model.OwnerCategoryCountDTO(v.owner.id, v.category, COUNT(v)) " +
+            "FROM Video v " +
+            "WHERE v.owner.id IN :ownerIds AND v.category IS NOT NULL " +
+            "GROUP BY v.owner.id, v.category")
+    List<OwnerCategoryCountDTO> countCategoriesByOwnerIds(@Param("ownerIds") Collection<Integer> ownerIds);
+
 }
@@ -0,0 +1,35 @@
+package com.webproject.safelogin.service;
+
+import com.webproject.safelogin.model.ActivityEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Zdarzenia aktywności na brokerze STOMP (TOPIC na /ws), wysyłane dopiero po commicie transakcji
+@Component
+public class ActivityEventRelay {
+
+    public static final String TOPIC = "/topic/activity";
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(ActivityEventRelay.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ActivityEventRelay(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void relay(ActivityEvent event) {
+        try {
+            messagingTemplate.convertAndSend(TOPIC, event);
+        } catch (Exception e) {
+            // zmiana już zapisana – satelity dostaną ją z feedu przy pełnym odświeżeniu
+            logger.warn("Cannot publish {} of user {}: {}", event.type(), event.userId(), e.getMessage());
+        }
+    }
+}
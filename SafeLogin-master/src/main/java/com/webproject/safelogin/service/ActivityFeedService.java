@@ -0,0 +1,94 @@
+package com.webproject.safelogin.service;
+
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.model.ActivityChangeDTO;
+import com.webproject.safelogin.model.ActivityEvent;
+import com.webproject.safelogin.model.ActivityFeedDTO;
+import com.webproject.safelogin.model.Category;
+import com.webproject.safelogin.repository.ActivityChangeRepository;
+import com.webproject.safelogin.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Feedy zmian dla satelit (?since= na historii, polubieniach i subskrypcjach).
+// record() woła serwis zmieniający listę, w swojej transakcji; zdarzenie wysyła ActivityEventRelay po commicie
+@Service
+public class ActivityFeedService {
+
+    private final ActivityChangeRepository changeRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ContentVersions contentVersions;
+
+    public ActivityFeedService(
+            ActivityChangeRepository changeRepository,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            ContentVersions contentVersions
+    ) {
+        this.changeRepository = changeRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.contentVersions = contentVersions;
+    }
+
+    // id zmiany nadaje INSERT, nie commit – blokada użytkownika sprawia, że jego zmiany zatwierdzają się
+    // w kolejności id i czytelnik feedu (id > since) nie przeskoczy żadnej
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Integer userId, ActivityChange.Kind kind, Integer refId, Category category, int delta) {
+        userRepository.lockById(userId);
+        changeRepository.save(new ActivityChange(userId, kind, refId, category, delta));
+        contentVersions.listChanged(kind, userId);
+        eventPublisher.publishEvent(new ActivityEvent(eventType(kind, delta), userId, refId, category));
+    }
+
+    // nowe wideo nie zmienia żadnej listy użytkownika – tylko zdarzenie i wersja /AllVideos
+    public void videoAdded(Integer ownerId, Integer videoId, Category category) {
+        contentVersions.videosChanged();
+        eventPublisher.publishEvent(new ActivityEvent(ActivityEvent.Type.VIDEO_ADDED, ownerId, videoId, category));
+    }
+
+    private static ActivityEvent.Type eventType(ActivityChange.Kind kind, int delta) {
+        return switch (kind) {
+            case WATCHED -> ActivityEvent.Type.WATCHED;
+            case LIKED -> delta > 0 ? ActivityEvent.Type.LIKED : ActivityEvent.Type.UNLIKED;
+            case SUBSCRIBED -> delta > 0 ? ActivityEvent.Type.SUBSCRIBED : ActivityEvent.Type.UNSUBSCRIBED;
+        };
+    }
+
+    // since <= 0: cała lista jako zmiany +1; kursor i lista z jednego snapshotu – nic nie wpada pomiędzy
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ActivityFeedDTO changesSince(Integer userId, ActivityChange.Kind kind, long since) {
+
+        if (since <= 0) {
+            long cursor = changeRepository.lastId(userId, kind);
+            return new ActivityFeedDTO(cursor, current(userId, kind));
+        }
+
+        List<ActivityChange> changes = changeRepository.findSince(userId, kind, since);
+        long cursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).getId();
+
+        return new ActivityFeedDTO(
+                cursor,
+                changes.stream()
+                        .map(c -> new ActivityChangeDTO(c.getRefId(), c.getCategory(), c.getDelta()))
+                        .toList()
+        );
+    }
+
+    private List<ActivityChangeDTO> current(Integer userId, ActivityChange.Kind kind) {
+        return switch (kind) {
+            case WATCHED -> changeRepository.currentHistory(userId);
+            case LIKED -> changeRepository.currentLikes(userId);
+            case SUBSCRIBED -> changeRepository.currentSubscriptions(userId)
+                    .stream()
+                    .map(channelId -> new ActivityChangeDTO(channelId, null, 1))
+                    .toList();
+        };
+    }
+}
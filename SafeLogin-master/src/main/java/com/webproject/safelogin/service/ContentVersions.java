@@ -0,0 +1,109 @@
+package com.webproject.safelogin.service;
+
+import com.webproject.safelogin.model.ActivityChange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Liczniki wersji odpowiedzi dla satelit (silne ETagi), podbijane po commicie.
+// Prefiks na uruchomienie – tag sprzed restartu nigdy nie pasuje
+@Component
+public class ContentVersions {
+
+    private final String boot = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong videos = new AtomicLong();
+    private final Map<ActivityChange.Kind, Map<Integer, Long>> lists = new EnumMap<>(ActivityChange.Kind.class);
+
+    public ContentVersions() {
+        for (ActivityChange.Kind kind : ActivityChange.Kind.values()) {
+            lists.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    /* =========================================================
+        BUMP (po commicie)
+       ========================================================= */
+    public void usersChanged() {
+        afterCommit(users::incrementAndGet);
+    }
+
+    public void videosChanged() {
+        afterCommit(videos::incrementAndGet);
+    }
+
+    public void listChanged(ActivityChange.Kind kind, Integer userId) {
+        afterCommit(() -> lists.get(kind).merge(userId, 1L, Long::sum));
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+    }
+
+    /* =========================================================
+        ETAGS
+       ========================================================= */
+    public String usersTag() {
+        return tag("u" + users.get());
+    }
+
+    // /AllVideos pokazuje nick właściciela – zmiana użytkownika też zmienia odpowiedź
+    public String videosTag() {
+        return tag("v" + videos.get() + "-u" + users.get());
+    }
+
+    // historia i subskrypcje pokazują nicki innych – licznik użytkowników też wchodzi do tagu
+    public String listTag(ActivityChange.Kind kind, Integer userId) {
+        return tag(kind.name().charAt(0)
+                + userId + "." + lists.get(kind).getOrDefault(userId, 0L)
+                + "-u" + users.get());
+    }
+
+    private String tag(String version) {
+        return "\"" + boot + "-" + version + "\"";
+    }
+
+    // 304 gdy ifNoneMatch zawiera etag, inaczej 200 z body.get(); oba z tagiem
+    public <T> ResponseEntity<T> respond(String ifNoneMatch, String etag, Supplier<T> body) {
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+
+    public <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals(etag) || trimmed.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,9 +1,12 @@
 package com.webproject.safelogin.service;
 
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.model.ActivityFeedDTO;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.model.Video;
 import com.webproject.safelogin.repository.UserRepository;
 import com.webproject.safelogin.repository.VideoRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
@@ -13,25 +16,44 @@ public class LikeService {
 
     private final UserRepository userRepository;
     private final VideoRepository videoRepository;
+    private final ActivityFeedService activityFeedService;
 
-    public LikeService(UserRepository userRepository, VideoRepository videoRepository) {
+    public LikeService(
+            UserRepository userRepository,
+            VideoRepository videoRepository,
+            ActivityFeedService activityFeedService
+    ) {
         this.userRepository = userRepository;
         this.videoRepository = videoRepository;
+        this.activityFeedService = activityFeedService;
     }
+
+    // like i wpis w dzienniku zmian w jednej transakcji
+    @Transactional
     public void likeVideo(int userId, int videoId) {
         User user = userRepository.findById(userId).orElseThrow();
         Video video = videoRepository.findById(videoId).orElseThrow();
 
-        user.getLikedVideos().add(video);
-        userRepository.save(user);
+        if (user.getLikedVideos().add(video)) {
+            userRepository.save(user);
+            activityFeedService.record(userId, ActivityChange.Kind.LIKED, videoId, video.getCategory(), 1);
+        }
     }
 
+    @Transactional
     public void unlikeVideo(int userId, int videoId) {
         User user = userRepository.findById(userId).orElseThrow();
         Video video = videoRepository.findById(videoId).orElseThrow();
 
-        user.getLikedVideos().remove(video);
-        userRepository.save(user);
+        if (user.getLikedVideos().remove(video)) {
+            userRepository.save(user);
+            activityFeedService.record(userId, ActivityChange.Kind.LIKED, videoId, video.getCategory(), -1);
+        }
+    }
+
+    // zmiany polubień po kursorze (since <= 0 = wszystkie polubione)
+    public ActivityFeedDTO getLikeChanges(int userId, long since) {
+        return activityFeedService.changesSince(userId, ActivityChange.Kind.LIKED, since);
     }
 
     public Set<Video> getLikedVideos(int userId) {
@@ -2,25 +2,39 @@ package com.webproject.safelogin.service;
 
 import com.webproject.safelogin.model.Category;
 import com.webproject.safelogin.model.Recommendation;
+import com.webproject.safelogin.model.RecommendationBatchItem;
 import com.webproject.safelogin.model.RecommendationDTO;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.repository.RecommendationRepository;
 import com.webproject.safelogin.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class RecommendationService {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO recommendation (user_id, category, created_at) VALUES (?, ?, ?)";
+
     private final RecommendationRepository recommendationRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     public RecommendationService(RecommendationRepository recommendationRepository,
-                                 UserRepository userRepository) {
+                                 UserRepository userRepository,
+                                 JdbcTemplate jdbcTemplate) {
         this.recommendationRepository = recommendationRepository;
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
 
@@ -47,6 +61,42 @@ public class RecommendationService {
         recommendationRepository.save(recommendation);
     }
 
+    // Zapis paczki werdyktów MainService: jedno zapytanie o użytkowników i jeden batch JDBC, nieznani pomijani
+    @Transactional
+    public int addRecommendations(List<RecommendationBatchItem> items) {
+        if (items == null || items.isEmpty()) {
+            return 0;
+        }
+
+        Set<Integer> userIds = new HashSet<>();
+        for (RecommendationBatchItem item : items) {
+            userIds.add(item.userId());
+        }
+        Set<Integer> existing = new HashSet<>(userRepository.findExistingIds(userIds));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(items.size());
+
+        for (RecommendationBatchItem item : items) {
+            if (!existing.contains(item.userId()) || item.category() == null) {
+                continue;
+            }
+
+            try {
+                Category category = Category.valueOf(item.category().toUpperCase());
+                rows.add(new Object[]{item.userId(), category.name(), now});
+            } catch (IllegalArgumentException e) {
+                // nieznana kategoria – pomijamy wiersz
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+
+        return rows.size();
+    }
+
     public RecommendationDTO getLatestRecommendation(int userId) {
         return recommendationRepository.findFirstByUserIdOrderByCreatedAtDesc(userId)
                 .map(r -> new RecommendationDTO(
@@ -1,7 +1,10 @@
 package com.webproject.safelogin.service;
 
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.model.ActivityFeedDTO;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
@@ -9,27 +12,40 @@ import java.util.Set;
 @Service
 public class SubscriptionService {
     private final UserRepository userRepository;
+    private final ActivityFeedService activityFeedService;
 
-    public SubscriptionService(UserRepository userRepository) {
+    public SubscriptionService(UserRepository userRepository, ActivityFeedService activityFeedService) {
         this.userRepository = userRepository;
+        this.activityFeedService = activityFeedService;
     }
 
+    @Transactional
     public void subscribe(Integer subscriberId, Integer targetId) {
         if (subscriberId.equals(targetId)) throw new IllegalArgumentException("Nie można subskrybować samego siebie");
 
         User subscriber = userRepository.findById(subscriberId).orElseThrow();
         User target = userRepository.findById(targetId).orElseThrow();
 
-        subscriber.getSubscriptions().add(target);
-        userRepository.save(subscriber);
+        if (subscriber.getSubscriptions().add(target)) {
+            userRepository.save(subscriber);
+            activityFeedService.record(subscriberId, ActivityChange.Kind.SUBSCRIBED, targetId, null, 1);
+        }
     }
 
+    @Transactional
     public void unsubscribe(Integer subscriberId, Integer targetId) {
         User subscriber = userRepository.findById(subscriberId).orElseThrow();
         User target = userRepository.findById(targetId).orElseThrow();
 
-        subscriber.getSubscriptions().remove(target);
-        userRepository.save(subscriber);
+        if (subscriber.getSubscriptions().remove(target)) {
+            userRepository.save(subscriber);
+            activityFeedService.record(subscriberId, ActivityChange.Kind.SUBSCRIBED, targetId, null, -1);
+        }
+    }
+
+    // zmiany subskrypcji po kursorze (since <= 0 = wszystkie kanały)
+    public ActivityFeedDTO getSubscriptionChanges(Integer userId, long since) {
+        return activityFeedService.changesSince(userId, ActivityChange.Kind.SUBSCRIBED, since);
     }
 
     public Set<User> getSubscriptions(Integer userId) {
@@ -15,6 +15,8 @@ public class UserService {
     private UserRepository userRepository;
     @Autowired
     AuthenticationManager authenticationManager;
+    @Autowired
+    private ContentVersions contentVersions;
 
     public static final int MAX_FAILED_ATTEMPTS = 3;
     public static final int LOCK_TIME_DURATION = 1; // minuty
@@ -31,7 +33,9 @@ public class UserService {
         existingUser.setSurname(updatedUser.getSurname());
         existingUser.setPassword(encoder.encode(updatedUser.getPassword()));
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        contentVersions.usersChanged();
+        return saved;
     }
     public void deleteUser(Integer id) {
         User user = userRepository.findById(id).orElseThrow(() ->
@@ -39,6 +43,7 @@ public class UserService {
         );
 
         userRepository.delete(user);
+        contentVersions.usersChanged();
     }
     public User findByEmail(String email) {
         return userRepository.findByEmail(email);
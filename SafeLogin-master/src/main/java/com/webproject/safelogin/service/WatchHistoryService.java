@@ -1,5 +1,7 @@
 package com.webproject.safelogin.service;
 
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.model.ActivityFeedDTO;
 import com.webproject.safelogin.model.WatchHistoryDTO;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.model.Video;
@@ -20,15 +22,21 @@ public class WatchHistoryService {
     private final WatchHistoryRepository historyRepository;
     private final VideoRepository videoRepository;
     private final UserRepository userRepository;
+    private final ActivityFeedService activityFeedService;
+    private final ContentVersions contentVersions;
 
     public WatchHistoryService(
             WatchHistoryRepository historyRepository,
             VideoRepository videoRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            ActivityFeedService activityFeedService,
+            ContentVersions contentVersions
     ) {
         this.historyRepository = historyRepository;
         this.videoRepository = videoRepository;
         this.userRepository = userRepository;
+        this.activityFeedService = activityFeedService;
+        this.contentVersions = contentVersions;
     }
 
     // zapis historii po ID użytkownika i wideo
@@ -42,11 +50,25 @@ public class WatchHistoryService {
         WatchHistory history = historyRepository
                 .findByUserAndVideo(user, video)
                 .orElse(new WatchHistory(user, video));
+        boolean firstWatch = history.getId() == null;
 
         history.setWatchedAt(LocalDateTime.now());
         history.setLastPositionSeconds(positionSeconds);
 
         historyRepository.save(history);
+
+        // ponowne obejrzenie zmienia tylko watchedAt – feed widzi tylko nowe wideo
+        if (firstWatch) {
+            activityFeedService.record(userId, ActivityChange.Kind.WATCHED, videoId, video.getCategory(), 1);
+        } else {
+            // pełna historia pokazuje watchedAt i pozycję – jej ETag i tak się zmienia
+            contentVersions.listChanged(ActivityChange.Kind.WATCHED, userId);
+        }
+    }
+
+    // zmiany historii po kursorze (since <= 0 = cała historia)
+    public ActivityFeedDTO getHistoryChanges(Integer userId, long since) {
+        return activityFeedService.changesSince(userId, ActivityChange.Kind.WATCHED, since);
     }
 
     // pobranie historii po ID użytkownika
@@ -0,0 +1,66 @@
+package com.webproject.safelogin.TestController;
+
+import com.webproject.safelogin.controller.RecommendationController;
+import com.webproject.safelogin.model.RecommendationBatch;
+import com.webproject.safelogin.model.RecommendationBatchAck;
+import com.webproject.safelogin.model.RecommendationBatchItem;
+import com.webproject.safelogin.service.RecommendationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecommendationControllerTest {
+
+    private final RecommendationService recommendationService = mock(RecommendationService.class);
+
+    private final RecommendationController controller = new RecommendationController(recommendationService);
+
+    @Test
+    void addRecommendations_OverStomp_ShouldSaveBatchAndAckIt() {
+        List<RecommendationBatchItem> items = List.of(
+                new RecommendationBatchItem(1, "MUSIC"),
+                new RecommendationBatchItem(2, "SPORT")
+        );
+        when(recommendationService.addRecommendations(items)).thenReturn(2);
+
+        RecommendationBatchAck ack = controller.addRecommendations(
+                new RecommendationBatch(7, items),
+                new TestingAuthenticationToken("MAIN_SERVICE", null, "ROLE_SERVICE")
+        );
+
+        assertEquals(new RecommendationBatchAck(7, 2), ack);
+        verify(recommendationService, times(1)).addRecommendations(items);
+    }
+
+    @Test
+    void addRecommendations_RepeatedBatchId_ShouldNotInsertAgain() {
+        List<RecommendationBatchItem> items = List.of(new RecommendationBatchItem(1, "MUSIC"));
+        when(recommendationService.addRecommendations(items)).thenReturn(1);
+
+        TestingAuthenticationToken service = new TestingAuthenticationToken("MAIN_SERVICE", null, "ROLE_SERVICE");
+
+        // ACK pierwszej próby nie dotarł na czas – MainService wysyła tę samą paczkę jeszcze raz
+        controller.addRecommendations(new RecommendationBatch(9, items), service);
+        RecommendationBatchAck retried = controller.addRecommendations(new RecommendationBatch(9, items), service);
+
+        assertEquals(new RecommendationBatchAck(9, 1), retried);
+        verify(recommendationService, times(1)).addRecommendations(items);
+    }
+
+    @Test
+    void addRecommendations_OverStompFromUser_ShouldBeDenied() {
+        RecommendationBatch batch = new RecommendationBatch(1, List.of(new RecommendationBatchItem(1, "MUSIC")));
+
+        assertThrows(AccessDeniedException.class, () -> controller.addRecommendations(
+                batch,
+                new TestingAuthenticationToken("alice", null, "ROLE_USER")
+        ));
+
+        verifyNoInteractions(recommendationService);
+    }
+}
@@ -4,6 +4,7 @@ import com.webproject.safelogin.controller.UserController;
 import com.webproject.safelogin.Dto.Login;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.repository.UserRepository;
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -34,6 +35,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ContentVersions contentVersions;
+
     @Mock
     private HttpServletRequest httpServletRequest;
 
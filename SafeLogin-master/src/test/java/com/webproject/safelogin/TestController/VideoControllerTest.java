@@ -1,90 +1,174 @@
 package com.webproject.safelogin.TestController;
 
 import com.webproject.safelogin.controller.VideoController;
+import com.webproject.safelogin.model.Category;
+import com.webproject.safelogin.model.OwnerCategoryCountDTO;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.model.Video;
+import com.webproject.safelogin.model.VideoDTO;
+import com.webproject.safelogin.repository.UserRepository;
 import com.webproject.safelogin.repository.VideoRepository;
+import com.webproject.safelogin.service.ActivityFeedService;
+import com.webproject.safelogin.service.ContentVersions;
+import com.webproject.safelogin.service.SubscriptionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(VideoController.class)
-public class VideoControllerTest {
+// MockMvc bez kontekstu Springa – bezpieczeństwo (klucz serwisu, CSRF) nie jest tu testowane
+class VideoControllerTest {
 
-    @Autowired
-    private MockMvc mockMvc;
+    @InjectMocks
+    private VideoController videoController;
 
-    @MockBean
+    @Mock
     private VideoRepository videoRepository;
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    @Mock
+    private UserRepository userRepository;
 
-    @Test
-    void addVideo_ShouldReturnOk() throws Exception {
+    @Mock
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private ActivityFeedService activityFeedService;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(videoController).build();
+    }
+
+    private static User owner(int id, String nick) {
         User user = new User();
-        user.setId(1);
-        user.setNick("nick");
+        user.setId(id);
+        user.setNick(nick);
+        return user;
+    }
 
+    private static Video video(int id, User owner, Category category) {
         Video video = new Video();
-        video.setId(1);
-        video.setTitle("Test Video");
+        video.setId(id);
+        video.setTitle("Video " + id);
+        video.setOwner(owner);
+        video.setCategory(category);
+        return video;
+    }
+
+    @Test
+    void addVideo_ShouldReturnOk() throws Exception {
+        User owner = owner(1, "nick");
 
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("userId", 1);
-        requestBody.put("videoId", 2);
-        requestBody.put("content", "Test comment");
+        VideoDTO request = new VideoDTO();
+        request.setTitle("Test Video");
+        request.setOwnerId(1);
+        request.setCategory("MUSIC");
 
-        // symulujemy zachowanie repozytorium - zwraca ten sam video po zapisie
-        when(videoRepository.save(any(Video.class))).thenReturn(video);
+        when(userRepository.findById(1)).thenReturn(Optional.of(owner));
+        when(videoRepository.save(any(Video.class))).thenReturn(video(2, owner, Category.MUSIC));
 
         mockMvc.perform(post("/addVideo")
-                        .with(user("testUser").roles("USER"))  // zalogowany użytkownik
-                        .with(csrf())                          // token CSRF
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(video)))
+                        .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Video saved"));
+
+        verify(activityFeedService).videoAdded(1, 2, Category.MUSIC);
     }
 
     @Test
     void getVideo_WhenVideoExists_ShouldReturnVideo() throws Exception {
-        Video video = new Video();
-        video.setId(1);
-        video.setTitle("Test Video");
-
-        when(videoRepository.findById(1)).thenReturn(Optional.of(video));
+        when(videoRepository.findById(1)).thenReturn(Optional.of(video(1, owner(1, "nick"), Category.MUSIC)));
 
-        mockMvc.perform(get("/getVideo/1")
-                        .with(user("testUser").roles("USER")))  // jeśli dostęp wymaga logowania
+        mockMvc.perform(get("/getVideo/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.title").value("Test Video"));
+                .andExpect(jsonPath("$.title").value("Video 1"));
     }
 
     @Test
     void getVideo_WhenVideoNotFound_ShouldReturnNotFound() throws Exception {
         when(videoRepository.findById(999)).thenReturn(Optional.empty());
 
-        mockMvc.perform(get("/getVideo/999")
-                        .with(user("testUser").roles("USER")))
+        mockMvc.perform(get("/getVideo/999"))
                 .andExpect(status().isNotFound());
     }
-}
 
+    @Test
+    void getVideosByOwners_ShouldQueryAllOwnersAtOnce() throws Exception {
+        User alice = owner(3, "alice");
+        User bob = owner(7, "bob");
+
+        when(videoRepository.findByOwnerIds(Set.of(3, 7))).thenReturn(List.of(
+                video(10, alice, Category.MUSIC),
+                video(11, bob, null)
+        ));
+
+        mockMvc.perform(get("/videosByOwners").param("ids", "3,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].ownerId").value(3))
+                .andExpect(jsonPath("$[0].category").value("MUSIC"))
+                .andExpect(jsonPath("$[1].ownerNick").value("bob"))
+                .andExpect(jsonPath("$[1].category").doesNotExist());
+
+        verify(videoRepository, times(1)).findByOwnerIds(Set.of(3, 7));
+        verify(videoRepository, never()).findAll();
+    }
+
+    @Test
+    void getVideosByUser_ShouldUseSameQueryForOneOwner() throws Exception {
+        when(videoRepository.findByOwnerIds(Set.of(3))).thenReturn(List.of(video(10, owner(3, "alice"), Category.SPORT)));
+
+        mockMvc.perform(get("/videosByUser/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(10));
+    }
+
+    @Test
+    void getCategoryCountsByOwners_ShouldReturnCountsFromRepository() throws Exception {
+        when(videoRepository.countCategoriesByOwnerIds(Set.of(3, 7))).thenReturn(List.of(
+                new OwnerCategoryCountDTO(3, Category.MUSIC, 2L),
+                new OwnerCategoryCountDTO(7, Category.GAMING, 5L)
+        ));
+
+        mockMvc.perform(get("/videosByOwners/categories").param("ids", "3,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].ownerId").value(3))
+                .andExpect(jsonPath("$[0].category").value("MUSIC"))
+                .andExpect(jsonPath("$[0].videos").value(2))
+                .andExpect(jsonPath("$[1].videos").value(5));
+    }
+
+    @Test
+    void getCategoryCountsByOwners_WithoutIds_ShouldNotQuery() throws Exception {
+        mockMvc.perform(get("/videosByOwners/categories").param("ids", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verifyNoInteractions(videoRepository);
+    }
+}
@@ -0,0 +1,99 @@
+package com.webproject.safelogin.TestRepository;
+
+import com.webproject.safelogin.model.Category;
+import com.webproject.safelogin.model.OwnerCategoryCountDTO;
+import com.webproject.safelogin.model.User;
+import com.webproject.safelogin.model.Video;
+import com.webproject.safelogin.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// H2 zamiast MySQL – "user" to w H2 słowo kluczowe, stąd NON_KEYWORDS
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:videos;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VideoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+
+        video(alice, Category.MUSIC);
+        video(alice, Category.MUSIC);
+        video(alice, Category.SPORT);
+        video(alice, null);
+        video(bob, Category.GAMING);
+        video(carol, Category.MUSIC);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User user(String nick) {
+        User user = new User();
+        user.setNick(nick);
+        return entityManager.persist(user);
+    }
+
+    private void video(User owner, Category category) {
+        Video video = new Video();
+        video.setTitle(owner.getNick() + " video");
+        video.setOwner(owner);
+        video.setCategory(category);
+        entityManager.persist(video);
+    }
+
+    @Test
+    void countCategoriesByOwnerIds_ShouldGroupPerOwnerAndSkipVideosWithoutCategory() {
+        List<OwnerCategoryCountDTO> counts =
+                videoRepository.countCategoriesByOwnerIds(Set.of(alice.getId(), bob.getId()));
+
+        assertEquals(3, counts.size());
+        assertEquals(
+                Set.of(
+                        new OwnerCategoryCountDTO(alice.getId(), Category.MUSIC, 2L),
+                        new OwnerCategoryCountDTO(alice.getId(), Category.SPORT, 1L),
+                        new OwnerCategoryCountDTO(bob.getId(), Category.GAMING, 1L)
+                ),
+                Set.copyOf(counts)
+        );
+    }
+
+    @Test
+    void findByOwnerIds_ShouldReturnVideosOfRequestedOwnersOnly() {
+        List<Video> videos = videoRepository.findByOwnerIds(Set.of(bob.getId(), carol.getId()));
+
+        assertEquals(2, videos.size());
+        assertTrue(videos.stream().allMatch(video -> video.getOwner().getId() != alice.getId()));
+    }
+
+    @Test
+    void countCategoriesByOwnerIds_ForUnknownOwner_ShouldBeEmpty() {
+        assertTrue(videoRepository.countCategoriesByOwnerIds(Set.of(-1)).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.webproject.safelogin.TestService;
+
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.model.ActivityFeedDTO;
+import com.webproject.safelogin.model.Category;
+import com.webproject.safelogin.repository.ActivityChangeRepository;
+import com.webproject.safelogin.repository.UserRepository;
+import com.webproject.safelogin.service.ActivityFeedService;
+import com.webproject.safelogin.service.ContentVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ActivityFeedServiceTest {
+
+    @Mock
+    private ActivityChangeRepository changeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    @InjectMocks
+    private ActivityFeedService activityFeedService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void record_ShouldLockUserBeforeWritingChange() {
+        activityFeedService.record(1, ActivityChange.Kind.LIKED, 10, Category.MUSIC, 1);
+
+        InOrder order = inOrder(userRepository, changeRepository);
+        order.verify(userRepository).lockById(1);
+        order.verify(changeRepository).save(any(ActivityChange.class));
+    }
+
+    @Test
+    void changesSince_WithoutCursor_ShouldStartFromLastChangeOfThatList() {
+        when(changeRepository.lastId(1, ActivityChange.Kind.SUBSCRIBED)).thenReturn(7L);
+        when(changeRepository.currentSubscriptions(1)).thenReturn(List.of(3));
+
+        ActivityFeedDTO feed = activityFeedService.changesSince(1, ActivityChange.Kind.SUBSCRIBED, 0);
+
+        assertEquals(7L, feed.cursor());
+        assertEquals(1, feed.changes().size());
+    }
+}
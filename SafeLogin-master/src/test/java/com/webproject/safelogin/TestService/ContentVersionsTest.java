@@ -0,0 +1,76 @@
+package com.webproject.safelogin.TestService;
+
+import com.webproject.safelogin.model.ActivityChange;
+import com.webproject.safelogin.service.ContentVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentVersionsTest {
+
+    private final ContentVersions versions = new ContentVersions();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void respond_WhenTagMatches_ShouldReturn304WithoutBuildingBody() {
+        String etag = versions.usersTag();
+        AtomicInteger built = new AtomicInteger();
+
+        ResponseEntity<List<String>> response = versions.respond("\"other\", " + etag, etag, () -> {
+            built.incrementAndGet();
+            return List.of("a");
+        });
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertEquals(0, built.get());
+    }
+
+    @Test
+    void listChanged_ShouldChangeOnlyThatUsersTag() {
+        String liked1 = versions.listTag(ActivityChange.Kind.LIKED, 1);
+        String liked2 = versions.listTag(ActivityChange.Kind.LIKED, 2);
+        String watched1 = versions.listTag(ActivityChange.Kind.WATCHED, 1);
+
+        versions.listChanged(ActivityChange.Kind.LIKED, 1);
+
+        assertNotEquals(liked1, versions.listTag(ActivityChange.Kind.LIKED, 1));
+        assertEquals(liked2, versions.listTag(ActivityChange.Kind.LIKED, 2));
+        assertEquals(watched1, versions.listTag(ActivityChange.Kind.WATCHED, 1));
+
+        ResponseEntity<String> response = versions.respond(liked1, versions.listTag(ActivityChange.Kind.LIKED, 1), () -> "fresh");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("fresh", response.getBody());
+    }
+
+    @Test
+    void usersChanged_InTransaction_ShouldBumpOnlyAfterCommit() {
+        String users = versions.usersTag();
+        String videos = versions.videosTag();
+
+        TransactionSynchronizationManager.initSynchronization();
+        versions.usersChanged();
+
+        assertEquals(users, versions.usersTag());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNotEquals(users, versions.usersTag());
+        // /AllVideos pokazuje nicki – też nieaktualne
+        assertNotEquals(videos, versions.videosTag());
+    }
+}
@@ -0,0 +1,66 @@
+package com.webproject.safelogin.TestService;
+
+import com.webproject.safelogin.model.RecommendationBatchItem;
+import com.webproject.safelogin.repository.RecommendationRepository;
+import com.webproject.safelogin.repository.UserRepository;
+import com.webproject.safelogin.service.RecommendationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecommendationServiceTest {
+
+    @Mock
+    private RecommendationRepository recommendationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private RecommendationService recommendationService;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rowsCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void addRecommendations_ShouldInsertValidRowsInOneBatch() {
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1, 2));
+
+        int saved = recommendationService.addRecommendations(List.of(
+                new RecommendationBatchItem(1, "MUSIC"),
+                new RecommendationBatchItem(2, "sport"),
+                new RecommendationBatchItem(3, "MUSIC"),
+                new RecommendationBatchItem(1, "NONE")
+        ));
+
+        assertEquals(2, saved);
+        verify(jdbcTemplate).batchUpdate(anyString(), rowsCaptor.capture());
+        verify(recommendationRepository, never()).save(any());
+
+        List<Object[]> rows = rowsCaptor.getValue();
+        assertEquals(2, rows.size());
+        assertEquals("MUSIC", rows.get(0)[1]);
+        assertEquals("SPORT", rows.get(1)[1]);
+    }
+
+    @Test
+    void addRecommendations_WhenEmpty_ShouldNotTouchDatabase() {
+        assertEquals(0, recommendationService.addRecommendations(List.of()));
+
+        verifyNoInteractions(userRepository, jdbcTemplate);
+    }
+}
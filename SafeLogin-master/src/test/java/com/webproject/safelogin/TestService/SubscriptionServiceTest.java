@@ -1,6 +1,8 @@
 package com.webproject.safelogin.TestService;
 
+import com.webproject.safelogin.service.ActivityFeedService;
 import com.webproject.safelogin.service.SubscriptionService;
+import com.webproject.safelogin.model.ActivityChange;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +18,9 @@ class SubscriptionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ActivityFeedService activityFeedService;
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -49,6 +54,20 @@ class SubscriptionServiceTest {
 
         assertTrue(subscriber.getSubscriptions().contains(target));
         verify(userRepository).save(subscriber);
+        verify(activityFeedService).record(1, ActivityChange.Kind.SUBSCRIBED, 2, null, 1);
+    }
+
+    @Test
+    void subscribe_WhenAlreadySubscribed_ShouldNotRecordChange() {
+        subscriber.getSubscriptions().add(target);
+
+        when(userRepository.findById(1)).thenReturn(Optional.of(subscriber));
+        when(userRepository.findById(2)).thenReturn(Optional.of(target));
+
+        subscriptionService.subscribe(1, 2);
+
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(activityFeedService);
     }
 
     @Test
@@ -86,6 +105,7 @@ class SubscriptionServiceTest {
 
         assertFalse(subscriber.getSubscriptions().contains(target));
         verify(userRepository).save(subscriber);
+        verify(activityFeedService).record(1, ActivityChange.Kind.SUBSCRIBED, 2, null, -1);
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.webproject.safelogin.TestService;
 
+import com.webproject.safelogin.service.ContentVersions;
 import com.webproject.safelogin.service.UserService;
 import com.webproject.safelogin.model.User;
 import com.webproject.safelogin.repository.UserRepository;
@@ -23,6 +24,9 @@ class UserServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private ContentVersions contentVersions;
+
     @InjectMocks
     private UserService userService;
 
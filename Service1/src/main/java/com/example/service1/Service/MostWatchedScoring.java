@@ -0,0 +1,40 @@
+package com.example.service1.Service;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.ChangeFeed;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.ScoringPlugin;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SERVICE 1
+ *
+ * Algorytm: najczęściej oglądana kategoria z historii użytkownika.
+ */
+@Component
+public class MostWatchedScoring implements ScoringPlugin<CategoryCounts> {
+
+    // liczniki kategorii per użytkownik, uzupełniane zmianami z ?since=
+    private final ChangeFeed<CategoryCounts> historyFeed =
+            ChangeFeed.categories(userId -> "/api/history/get/" + userId);
+
+    // historię zmienia tylko obejrzenie
+    @Override
+    public Collection<Integer> affectedUsers(ActivityEventDTO event) {
+        return "WATCHED".equals(event.type()) ? List.of(event.userId()) : List.of();
+    }
+
+    @Override
+    public CategoryCounts fetch(SafeLoginClient safeLogin, int userId) {
+        return historyFeed.read(safeLogin, userId);
+    }
+
+    @Override
+    public String score(int userId, CategoryCounts history) {
+        return history.mostCommon("NONE");
+    }
+}
@@ -1,8 +0,0 @@
-package com.example.service2.DTO;
-
-public record UserDTO(
-        int id,
-        String email,
-        String nick
-) {
-}
@@ -0,0 +1,47 @@
+package com.example.service2.Service;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.ChangeFeed;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.ScoringPlugin;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SERVICE 2
+ *
+ * Algorytm: najczęstsza kategoria filmów kanałów, które użytkownik subskrybuje.
+ */
+@Component
+public class SubscriptionsScoring implements ScoringPlugin<CategoryCounts> {
+
+    // subskrybowane kanały per użytkownik, uzupełniane zmianami z ?since=
+    private final ChangeFeed<Set<Integer>> subscriptionsFeed =
+            ChangeFeed.ids(userId -> "/getSubscriptions/" + userId);
+
+    // nowe wideo kanału zmienia liczniki wszystkich jego subskrybentów – kto nim jest, wie tylko SafeLogin
+    @Override
+    public Collection<Integer> affectedUsers(ActivityEventDTO event) {
+        return switch (event.type()) {
+            case "SUBSCRIBED", "UNSUBSCRIBED" -> List.of(event.userId());
+            case "VIDEO_ADDED" -> null;
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public CategoryCounts fetch(SafeLoginClient safeLogin, int userId) {
+        Set<Integer> channels = subscriptionsFeed.read(safeLogin, userId);
+
+        return safeLogin.categoryCountsOf(channels);
+    }
+
+    @Override
+    public String score(int userId, CategoryCounts counts) {
+        return counts.mostCommon("NONE");
+    }
+}
@@ -1,7 +0,0 @@
-package com.example.service3.DTO;
-
-public record UserDTO(
-        int id,
-        String nick
-) {
-}
@@ -0,0 +1,42 @@
+package com.example.service3.Service;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.ChangeFeed;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.ScoringPlugin;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SERVICE 3
+ *
+ * Algorytm: najczęstsza kategoria polubionych filmów.
+ */
+@Component
+public class MostLikedScoring implements ScoringPlugin<CategoryCounts> {
+
+    // liczniki kategorii per użytkownik, uzupełniane zmianami z ?since=
+    private final ChangeFeed<CategoryCounts> likesFeed =
+            ChangeFeed.categories(userId -> "/users/" + userId + "/liked");
+
+    @Override
+    public Collection<Integer> affectedUsers(ActivityEventDTO event) {
+        return switch (event.type()) {
+            case "LIKED", "UNLIKED" -> List.of(event.userId());
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public CategoryCounts fetch(SafeLoginClient safeLogin, int userId) {
+        return likesFeed.read(safeLogin, userId);
+    }
+
+    @Override
+    public String score(int userId, CategoryCounts likedVideos) {
+        return likedVideos.mostCommon("OTHER");
+    }
+}
@@ -1,3 +0,0 @@
-package com.example.service4.DTO;
-
-public record UserDTO(int id, String nick) {}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.service5.Service;
+
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.ScoringPlugin;
+import org.springframework.stereotype.Component;
+
+/**
+ * SERVICE 5
+ *
+ * Algorytm: najpopularniejsza kategoria w całym serwisie – ta sama dla
+ * wszystkich użytkowników, liczona raz na tick i wysyłana jako jeden głos
+ * broadcast (MainService dokłada go do każdej rundy tej epoki).
+ */
+@Component
+public class MostPopularScoring implements ScoringPlugin<Void> {
+
+    private volatile String bestCategory = "NONE";
+
+    @Override
+    public void prepare(SafeLoginClient safeLogin) {
+        bestCategory = safeLogin.countCategories("/AllVideos").mostCommon("NONE");
+    }
+
+    @Override
+    public String broadcast() {
+        return bestCategory;
+    }
+
+    @Override
+    public Void fetch(SafeLoginClient safeLogin, int userId) {
+        return null;
+    }
+
+    @Override
+    public String score(int userId, Void data) {
+        return bestCategory;
+    }
+}
@@ -1,7 +0,0 @@
-package com.example.service6.DTO;
-
-public record SubscribedCategoryMessage(
-        int userId,
-        String category
-) {
-}
@@ -1,7 +0,0 @@
-package com.example.service6.DTO;
-
-public record UserDTO(
-        int id,
-        String email,
-        String nick) {
-}
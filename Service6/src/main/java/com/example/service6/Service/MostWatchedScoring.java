@@ -0,0 +1,66 @@
+package com.example.service6.Service;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.ChangeFeed;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.ScoringPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SERVICE 6
+ *
+ * Algorytm: Najczęściej oglądana kategoria
+ * Waga: 0.6
+ *
+ * Fault injection:
+ * 30% - corrupted data
+ */
+@Component
+public class MostWatchedScoring implements ScoringPlugin<CategoryCounts> {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(MostWatchedScoring.class);
+
+    // Probability of corrupted data
+    @Value("${fault.injection.corrupted-data:0.3}")
+    private double corruptedDataProbability;
+
+    // liczniki kategorii per użytkownik, uzupełniane zmianami z ?since=
+    private final ChangeFeed<CategoryCounts> historyFeed =
+            ChangeFeed.categories(userId -> "/api/history/get/" + userId);
+
+    // historię zmienia tylko obejrzenie
+    @Override
+    public Collection<Integer> affectedUsers(ActivityEventDTO event) {
+        return "WATCHED".equals(event.type()) ? List.of(event.userId()) : List.of();
+    }
+
+    @Override
+    public CategoryCounts fetch(SafeLoginClient safeLogin, int userId) {
+        return historyFeed.read(safeLogin, userId);
+    }
+
+    @Override
+    public String score(int userId, CategoryCounts history) {
+
+        /* ===============================
+           FAULT INJECTION
+           =============================== */
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < corruptedDataProbability) {
+            String corrupted = String.valueOf(random.nextInt(1000) + 999);
+            logger.warn("️ FAULT INJECTION: CORRUPTED DATA -> {}", corrupted);
+            return corrupted;
+        }
+
+        return history.mostCommon("NONE");
+    }
+}
@@ -1,8 +0,0 @@
-package com.example.service7.DTO;
-
-public record LikedVideoDTO(
-        int id,
-        String title,
-        String category
-) {
-}
@@ -1,7 +0,0 @@
-package com.example.service7.DTO;
-
-public record SubscribedCategoryMessage(
-        int userId,
-        String category
-) {
-}
\ No newline at end of file
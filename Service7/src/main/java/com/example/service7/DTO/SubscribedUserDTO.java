@@ -1,7 +0,0 @@
-package com.example.service7.DTO;
-
-public record  SubscribedUserDTO(
-        int id,
-        String email,
-        String nick
-) { }
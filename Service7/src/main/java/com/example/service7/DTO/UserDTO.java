@@ -1,7 +0,0 @@
-package com.example.service7.DTO;
-
-public record UserDTO(
-        int id,
-        String email,
-        String nick) {
-}
\ No newline at end of file
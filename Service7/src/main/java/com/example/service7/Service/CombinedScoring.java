@@ -0,0 +1,92 @@
+package com.example.service7.Service;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.ChangeFeed;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.ScoringPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SERVICE7
+ *
+ * Algorytm:
+ * Połączenie kategorii z:
+ *  - subskrypcji
+ *  - polubień
+ *
+ * Fault:
+ *  CRASH 20%
+ */
+@Component
+public class CombinedScoring implements ScoringPlugin<CombinedScoring.Signals> {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(CombinedScoring.class);
+
+    @Value("${fault.injection.crash:0.2}")
+    private double crashProbability;
+
+    // subskrypcje i polubienia per użytkownik, uzupełniane zmianami z ?since=
+    private final ChangeFeed<Set<Integer>> subscriptionsFeed =
+            ChangeFeed.ids(userId -> "/getSubscriptions/" + userId);
+    private final ChangeFeed<CategoryCounts> likesFeed =
+            ChangeFeed.categories(userId -> "/users/" + userId + "/liked");
+
+    public record Signals(CategoryCounts subscribed, CategoryCounts likes) {}
+
+    @Override
+    public void prepare(SafeLoginClient safeLogin) {
+
+        /* ===============================
+           FAULT INJECTION: CRASH
+           =============================== */
+        if (ThreadLocalRandom.current().nextDouble() < crashProbability) {
+            logger.error(" FAULT INJECTION: SERVICE7 CRASH");
+            System.exit(1);
+        }
+    }
+
+    // nowe wideo kanału zmienia liczniki wszystkich jego subskrybentów – kto nim jest, wie tylko SafeLogin
+    @Override
+    public Collection<Integer> affectedUsers(ActivityEventDTO event) {
+        return switch (event.type()) {
+            case "LIKED", "UNLIKED", "SUBSCRIBED", "UNSUBSCRIBED" -> List.of(event.userId());
+            case "VIDEO_ADDED" -> null;
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public Signals fetch(SafeLoginClient safeLogin, int userId) {
+
+        /* ---------- SUBSCRIPTIONS ---------- */
+        Set<Integer> channels = subscriptionsFeed.read(safeLogin, userId);
+        CategoryCounts subscribed = safeLogin.categoryCountsOf(channels);
+
+        /* ---------- LIKES ---------- */
+        CategoryCounts likes = likesFeed.read(safeLogin, userId);
+
+        return new Signals(subscribed, likes);
+    }
+
+    @Override
+    public String score(int userId, Signals signals) {
+
+        String subCategory = signals.subscribed().mostCommon("OTHER");
+        String likedCategory = signals.likes().mostCommon("OTHER");
+
+        /* ---------- COMBINE ---------- */
+        return subCategory.equals(likedCategory)
+                ? subCategory
+                : subCategory + "," + likedCategory;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.satellite.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Kto pobiera i ocenia użytkowników (satellite.fetch-mode):
+// POOL – stała pula wątków platformowych, VIRTUAL – wątek na użytkownika (wirtualny na JDK 21+)
+public enum FetchMode {
+    POOL,
+    VIRTUAL;
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(FetchMode.class);
+
+    public static FetchMode of(String name) {
+        return name == null || name.isBlank()
+                ? POOL
+                : valueOf(name.trim().toUpperCase());
+    }
+
+    // limit równoległości trzyma semafor pipeline'u – tu tylko rozmiar puli
+    public Executor executor(String threadNamePrefix, int poolSize) {
+        if (this == VIRTUAL) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            try {
+                executor.setVirtualThreads(true);
+            } catch (UnsupportedOperationException e) {
+                // JDK < 21 – zostaje wątek platformowy na użytkownika
+                logger.warn("{} – {} runs one platform thread per user", e.getMessage(), threadNamePrefix);
+            }
+            return executor;
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, threadNamePrefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
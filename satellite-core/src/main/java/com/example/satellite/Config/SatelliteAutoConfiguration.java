@@ -0,0 +1,91 @@
+package com.example.satellite.Config;
+
+import com.example.satellite.Model.SatelliteSettings;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.SatellitePipeline;
+import com.example.satellite.Service.ScoringPlugin;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Bean;
+
+// Runtime satelity – włączany sam, gdy w kontekście jest ScoringPlugin
+@AutoConfiguration
+@ConditionalOnBean(ScoringPlugin.class)
+public class SatelliteAutoConfiguration {
+
+    @Bean
+    public SatelliteSettings satelliteSettings(
+            @Value("${satellite.name}") String name,
+            @Value("${satellite.id}") int id,
+            @Value("${satellite.weight:1.0}") double weight,
+            @Value("${satellite.wire-format:json}") String wireFormat,
+            // ile głosów idzie w jednej ramce /app/vote-batch
+            @Value("${satellite.batch-size:500}") int batchSize,
+            // długość epoki rundy – musi się zgadzać z mainservice.rounds.epoch-ms
+            @Value("${satellite.round-epoch-ms:60000}") long roundEpochMs,
+            // partycje MainService: name=ws-url,... (pierścień consistent hash)
+            @Value("${satellite.partitions:main=ws://localhost:8081/main-ws}") String partitions,
+            // opcjonalny plik z listą partycji – zmiana pliku = rebalans
+            @Value("${satellite.partitions-file:}") String partitionsFile,
+            @Value("${satellite.safelogin-url:http://localhost:8080}") String safeLoginUrl,
+            // pool | virtual (wątek na użytkownika, wirtualny na JDK 21+)
+            @Value("${satellite.fetch-mode:virtual}") String fetchMode,
+            // ilu użytkowników naraz czyta z SafeLogin
+            @Value("${satellite.fetch-permits:8}") int fetchPermits,
+            @Value("${satellite.initial-delay-ms:10000}") long initialDelayMs,
+            @Value("${satellite.tick-interval-ms:30000}") long tickIntervalMs,
+            // zdarzenia aktywności SafeLogin – pusty = bez zdarzeń
+            @Value("${satellite.events-url:ws://localhost:8080/ws}") String eventsUrl,
+            // co ile ticków pełne pobranie mimo zdarzeń
+            @Value("${satellite.events-full-refresh-ticks:10}") int fullRefreshTicks
+    ) {
+        return new SatelliteSettings(
+                name,
+                id,
+                weight,
+                wireFormat,
+                batchSize,
+                roundEpochMs,
+                partitions,
+                partitionsFile,
+                safeLoginUrl,
+                fetchMode,
+                fetchPermits,
+                initialDelayMs,
+                tickIntervalMs,
+                eventsUrl,
+                fullRefreshTicks
+        );
+    }
+
+    @Bean
+    public SafeLoginClient safeLoginClient(
+            SatelliteSettings settings,
+            ObjectProvider<MeterRegistry> registry
+    ) {
+        return new SafeLoginClient(
+                settings.safeLoginUrl(),
+                settings.name(),
+                registry.getIfAvailable(SimpleMeterRegistry::new)
+        );
+    }
+
+    @Bean
+    public SatellitePipeline<?> satellitePipeline(
+            SatelliteSettings settings,
+            ScoringPlugin<?> plugin,
+            SafeLoginClient safeLoginClient,
+            ObjectProvider<MeterRegistry> registry
+    ) {
+        return new SatellitePipeline<>(
+                settings,
+                plugin,
+                safeLoginClient,
+                registry.getIfAvailable(SimpleMeterRegistry::new)
+        );
+    }
+}
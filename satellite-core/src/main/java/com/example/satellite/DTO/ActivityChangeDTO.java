@@ -0,0 +1,4 @@
+package com.example.satellite.DTO;
+
+// element feedu ?since= – refId dodany (delta 1) albo usunięty (delta -1)
+public record ActivityChangeDTO(int refId, String category, int delta) {}
@@ -0,0 +1,4 @@
+package com.example.satellite.DTO;
+
+// zdarzenie z /topic/activity SafeLogin – type jak ActivityEvent.Type po stronie SafeLogin
+public record ActivityEventDTO(String type, int userId, int refId, String category) {}
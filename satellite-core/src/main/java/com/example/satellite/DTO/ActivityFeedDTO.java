@@ -0,0 +1,6 @@
+package com.example.satellite.DTO;
+
+import java.util.List;
+
+// odpowiedź ?since= – zmiany i kursor na następne zapytanie
+public record ActivityFeedDTO(long cursor, List<ActivityChangeDTO> changes) {}
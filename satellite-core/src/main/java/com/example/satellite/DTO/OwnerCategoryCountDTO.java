@@ -0,0 +1,4 @@
+package com.example.satellite.DTO;
+
+// element /videosByOwners/categories – ile filmów kategorii ma właściciel
+public record OwnerCategoryCountDTO(int ownerId, String category, long videos) {}
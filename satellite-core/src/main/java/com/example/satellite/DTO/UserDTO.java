@@ -0,0 +1,4 @@
+package com.example.satellite.DTO;
+
+// element /api/users/all – runtime potrzebuje tylko id
+public record UserDTO(int id, String nick) {}
@@ -0,0 +1,66 @@
+package com.example.satellite.Model;
+
+import com.example.mainservice.Model.Category;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Licznik kategorii – jeden long na Category, wypełniany wprost z odpowiedzi SafeLogin.
+// count może być ujemny (ChangeFeed zdejmuje tak usunięty film); jedna instancja na użytkownika
+public final class CategoryCounts {
+
+    private static final Map<String, Integer> ORDINALS = new HashMap<>();
+
+    static {
+        for (Category category : Category.values()) {
+            ORDINALS.put(category.name(), category.ordinal());
+        }
+    }
+
+    private final long[] counts = new long[Category.COUNT];
+
+    public void add(String category) {
+        add(category, 1);
+    }
+
+    public void add(String category, long count) {
+        Integer ordinal = category == null ? null : ORDINALS.get(category);
+        if (ordinal != null) {
+            counts[ordinal] += count;
+        }
+    }
+
+    public long get(Category category) {
+        return counts[category.ordinal()];
+    }
+
+    public boolean isEmpty() {
+        for (long count : counts) {
+            if (count > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String mostCommon(String fallback) {
+        int best = -1;
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0 && (best < 0 || counts[c] > counts[best])) {
+                best = c;
+            }
+        }
+        return best < 0 ? fallback : Category.ofOrdinal(best).name();
+    }
+
+    // tylko spośród kategorii, które w ogóle wystąpiły
+    public String leastCommon(String fallback) {
+        int rarest = -1;
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0 && (rarest < 0 || counts[c] < counts[rarest])) {
+                rarest = c;
+            }
+        }
+        return rarest < 0 ? fallback : Category.ofOrdinal(rarest).name();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.satellite.Model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Pierścień partycji MainService (consistent hashing), virtualNodes punktów na partycję pod hashem "name#i".
+// Spec: name=ws-url po przecinku, np. p0=ws://localhost:8081/main-ws,p1=ws://localhost:8091/main-ws
+public final class PartitionRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    public record Partition(String name, String url) {}
+
+    private final List<Partition> partitions;
+
+    // posortowane punkty pierścienia i indeks partycji dla każdego z nich
+    private final int[] points;
+    private final int[] owners;
+
+    public PartitionRing(List<Partition> partitions, int virtualNodes) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("Partition ring needs at least one partition");
+        }
+
+        Set<String> names = new HashSet<>();
+        for (Partition partition : partitions) {
+            if (!names.add(partition.name())) {
+                throw new IllegalArgumentException("Duplicate partition " + partition.name());
+            }
+        }
+
+        this.partitions = List.copyOf(partitions);
+
+        int nodes = Math.max(1, virtualNodes);
+        long[] packed = new long[partitions.size() * nodes];
+
+        for (int p = 0; p < partitions.size(); p++) {
+            for (int v = 0; v < nodes; v++) {
+                int point = hash(partitions.get(p).name() + "#" + v);
+                packed[p * nodes + v] = ((long) point << 32) | p;
+            }
+        }
+
+        Arrays.sort(packed);
+
+        this.points = new int[packed.length];
+        this.owners = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            points[i] = (int) (packed[i] >> 32);
+            owners[i] = (int) packed[i];
+        }
+    }
+
+    public static PartitionRing parse(String spec) {
+        return parse(spec, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public static PartitionRing parse(String spec, int virtualNodes) {
+        List<Partition> partitions = new ArrayList<>();
+
+        for (String entry : spec == null ? new String[0] : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            int separator = trimmed.indexOf('=');
+            partitions.add(separator < 0
+                    ? new Partition(trimmed, trimmed)
+                    : new Partition(
+                            trimmed.substring(0, separator).trim(),
+                            trimmed.substring(separator + 1).trim()
+                    ));
+        }
+
+        return new PartitionRing(partitions, virtualNodes);
+    }
+
+    public List<Partition> partitions() {
+        return partitions;
+    }
+
+    public int ownerIndex(int userId) {
+        int h = mix(userId);
+
+        int index = Arrays.binarySearch(points, h);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if (index == points.length) {
+            index = 0; // zawinięcie pierścienia
+        }
+
+        return owners[index];
+    }
+
+    public Partition ownerOf(int userId) {
+        return partitions.get(ownerIndex(userId));
+    }
+
+    // FNV-1a + finalizer murmur3 – String.hashCode układa "p0#1", "p0#2" zbyt blisko siebie
+    private static int hash(String value) {
+        int h = 0x811C9DC5;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+        return fmix(h);
+    }
+
+    private static int mix(int userId) {
+        return fmix(userId * 0x9E3779B9);
+    }
+
+    private static int fmix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
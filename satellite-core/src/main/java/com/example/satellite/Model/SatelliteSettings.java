@@ -0,0 +1,21 @@
+package com.example.satellite.Model;
+
+// Konfiguracja jednej satelity (satellite.*); eventsUrl pusty = bez zdarzeń,
+// fullRefreshTicks – co ile ticków pełny fetch przy zdarzeniach
+public record SatelliteSettings(
+        String name,
+        int id,
+        double weight,
+        String wireFormat,
+        int batchSize,
+        long roundEpochMs,
+        String partitions,
+        String partitionsFile,
+        String safeLoginUrl,
+        String fetchMode,
+        int fetchPermits,
+        long initialDelayMs,
+        long tickIntervalMs,
+        String eventsUrl,
+        int fullRefreshTicks
+) {}
@@ -0,0 +1,106 @@
+package com.example.satellite.Service;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.satellite.DTO.ActivityEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Subskrypcja zdarzeń aktywności SafeLogin (/topic/activity na /ws), CONNECT z X-SERVICE-KEY.
+// Pipeline woła ensureConnected() co tick; po ponownej subskrypcji onConnected – zgubione zdarzenia trzeba doczytać
+public class ActivityListener {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(ActivityListener.class);
+
+    public static final String TOPIC = "/topic/activity";
+
+    private static final String SERVICE_API_KEY =
+            "SUPER_SECRET_SERVICE_KEY_123";
+
+    private final String url;
+    private final String serviceName;
+    private final Consumer<ActivityEventDTO> onEvent;
+    private final Runnable onConnected;
+
+    private final WebSocketStompClient client = WireFormat.JSON.stompClient();
+
+    private volatile StompSession session;
+    private final AtomicBoolean connecting = new AtomicBoolean();
+
+    public ActivityListener(
+            String url,
+            String serviceName,
+            Consumer<ActivityEventDTO> onEvent,
+            Runnable onConnected
+    ) {
+        this.url = url;
+        this.serviceName = serviceName;
+        this.onEvent = onEvent;
+        this.onConnected = onConnected;
+    }
+
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    public void ensureConnected() {
+        if (isConnected() || !connecting.compareAndSet(false, true)) {
+            return;
+        }
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("X-SERVICE-KEY", SERVICE_API_KEY);
+
+        client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+
+            @Override
+            public void afterConnected(StompSession session, StompHeaders headers) {
+                session.subscribe(TOPIC, new StompFrameHandler() {
+
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return ActivityEventDTO.class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        onEvent.accept((ActivityEventDTO) payload);
+                    }
+                });
+
+                ActivityListener.this.session = session;
+                onConnected.run();
+                logger.info("{} subscribed to SafeLogin activity ({})", serviceName, url);
+            }
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                logger.warn("{} activity stream lost: {}", serviceName, exception.getMessage());
+            }
+        }).whenComplete((session, error) -> {
+            connecting.set(false);
+            if (error != null) {
+                logger.debug("{} cannot subscribe to SafeLogin activity ({}): {}", serviceName, url, error.getMessage());
+            }
+        });
+    }
+
+    public void stop() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        client.stop();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.satellite.Service;
+
+import com.example.satellite.DTO.ActivityChangeDTO;
+import com.example.satellite.DTO.ActivityFeedDTO;
+import com.example.satellite.Model.CategoryCounts;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Stan listy użytkownika (S, np. CategoryCounts) trzymany w satelicie i uzupełniany zmianami z ?since=.
+// Pierwszy odczyt since=0 (cała lista), potem tylko zmiany po kursorze z ETagiem – 304 nic nie kosztuje.
+// Nieudany odczyt zostawia ostatni stan. Zwracany stan żyje do następnego odczytu tego użytkownika.
+public final class ChangeFeed<S> {
+
+    @FunctionalInterface
+    public interface Applier<S> {
+        void apply(S state, ActivityChangeDTO change);
+    }
+
+    private final IntFunction<String> path;
+    private final Supplier<S> empty;
+    private final Applier<S> applier;
+
+    private final Map<Integer, Entry<S>> users = new ConcurrentHashMap<>();
+
+    public ChangeFeed(IntFunction<String> path, Supplier<S> empty, Applier<S> applier) {
+        this.path = path;
+        this.empty = empty;
+        this.applier = applier;
+    }
+
+    // Liczniki kategorii filmów z listy (historia, polubienia)
+    public static ChangeFeed<CategoryCounts> categories(IntFunction<String> path) {
+        return new ChangeFeed<>(
+                path,
+                CategoryCounts::new,
+                (counts, change) -> counts.add(change.category(), change.delta())
+        );
+    }
+
+    // Id z listy (subskrybowane kanały)
+    public static ChangeFeed<Set<Integer>> ids(IntFunction<String> path) {
+        return new ChangeFeed<>(
+                path,
+                HashSet::new,
+                (ids, change) -> {
+                    if (change.delta() > 0) {
+                        ids.add(change.refId());
+                    } else {
+                        ids.remove(change.refId());
+                    }
+                }
+        );
+    }
+
+    public S read(SafeLoginClient safeLogin, int userId) {
+        Entry<S> entry = users.computeIfAbsent(userId, id -> new Entry<>(empty.get()));
+
+        boolean full = !entry.loaded;
+        long since = full ? 0 : entry.cursor;
+
+        SafeLoginClient.Tagged<ActivityFeedDTO> answer = safeLogin.changes(
+                path.apply(userId) + "?since=" + since,
+                full ? null : entry.etag
+        );
+        if (answer == null) {
+            return entry.state;
+        }
+        if (answer.notModified()) {
+            return entry.state;
+        }
+
+        ActivityFeedDTO feed = answer.body();
+
+        S state = full ? empty.get() : entry.state;
+        if (feed.changes() != null) {
+            for (ActivityChangeDTO change : feed.changes()) {
+                applier.apply(state, change);
+            }
+        }
+
+        entry.state = state;
+        entry.cursor = feed.cursor();
+        entry.etag = answer.etag();
+        entry.loaded = true;
+
+        return state;
+    }
+
+    // volatile – kolejne ticki czytają użytkownika z różnych wątków
+    private static final class Entry<S> {
+        volatile S state;
+        volatile long cursor;
+        volatile String etag;
+        volatile boolean loaded;
+
+        Entry(S state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.satellite.Service;
+
+import com.example.satellite.DTO.ActivityFeedDTO;
+import com.example.satellite.DTO.OwnerCategoryCountDTO;
+import com.example.satellite.DTO.UserDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Odczyty z SafeLogin dla satelit – jeden HttpClient, błąd = pusta lista (satellite.fetch.errors).
+// Ciała czytane strumieniowo; GET warunkowe (If-None-Match), przy 304 zwracany poprzedni wynik – nie modyfikować
+public class SafeLoginClient {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(SafeLoginClient.class);
+
+    private static final String SERVICE_API_KEY =
+            "SUPER_SECRET_SERVICE_KEY_123";
+
+    private static final String CATEGORY_FIELD = "category";
+
+    // tyle id w jednym ?ids= – URL zostaje daleko od limitu nagłówka
+    private static final int IDS_PER_REQUEST = 500;
+
+    private final String baseUrl;
+    private final Counter errors;
+    private final Counter notModified;
+
+    // ostatni ETag i sparsowana odpowiedź per ścieżka
+    private final Map<String, Tagged<?>> lastSeen = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public SafeLoginClient(String baseUrl, String serviceName, MeterRegistry registry) {
+        this.baseUrl = baseUrl;
+        this.errors = Counter.builder("satellite.fetch.errors")
+                .description("SafeLogin requests that failed and were read as empty")
+                .tag("service", serviceName)
+                .register(registry);
+        this.notModified = Counter.builder("satellite.fetch.not-modified")
+                .description("SafeLogin requests answered 304 – cached result reused")
+                .tag("service", serviceName)
+                .register(registry);
+    }
+
+    // Ciało odpowiedzi z ETag; body == null przy 304
+    public record Tagged<R>(R body, String etag, boolean notModified) {}
+
+    public List<UserDTO> users() {
+        return list("/api/users/all", UserDTO[].class);
+    }
+
+    // Liczniki kategorii filmów wszystkich ownerIds – jedno zapytanie na IDS_PER_REQUEST właścicieli
+    public CategoryCounts categoryCountsOf(Collection<Integer> ownerIds) {
+        List<Integer> ids = List.copyOf(ownerIds);
+        CategoryCounts counts = new CategoryCounts();
+
+        for (int from = 0; from < ids.size(); from += IDS_PER_REQUEST) {
+            String chunk = ids.subList(from, Math.min(ids.size(), from + IDS_PER_REQUEST))
+                    .stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+
+            for (OwnerCategoryCountDTO owner : list("/videosByOwners/categories?ids=" + chunk, OwnerCategoryCountDTO[].class)) {
+                counts.add(owner.category(), owner.videos());
+            }
+        }
+
+        return counts;
+    }
+
+    // GET tablicy JSON – liczy tylko pole category, błąd = nic nie policzone
+    public CategoryCounts countCategories(String path) {
+        CategoryCounts counts = cached(path, body -> {
+            CategoryCounts counted = new CategoryCounts();
+
+            try (JsonParser parser = mapper.getFactory().createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("expected a JSON array");
+                }
+
+                for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                    if (element != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        JsonToken value = parser.nextToken();
+
+                        if (value == JsonToken.VALUE_STRING && CATEGORY_FIELD.equals(field)) {
+                            counted.add(parser.getText());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+
+            return counted;
+        });
+
+        return counts == null ? new CategoryCounts() : counts;
+    }
+
+    // GET feedu ?since= (kursor już w path), bez cache tutaj; null gdy zapytanie się nie udało
+    public Tagged<ActivityFeedDTO> changes(String path, String etag) {
+        return read(path, etag, body -> mapper.readValue(body, ActivityFeedDTO.class));
+    }
+
+    // GET path (względem URL SafeLogin) jako tablica JSON
+    public <T> List<T> list(String path, Class<T[]> type) {
+        List<T> items = cached(path, body -> Arrays.asList(mapper.readValue(body, type)));
+        return items == null ? List.of() : items;
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<R> {
+        R read(InputStream body) throws IOException;
+    }
+
+    // GET z If-None-Match – przy 304 wynik poprzedniego parsowania
+    @SuppressWarnings("unchecked")
+    private <R> R cached(String path, BodyReader<R> reader) {
+        Tagged<R> last = (Tagged<R>) lastSeen.get(path);
+
+        Tagged<R> answer = read(path, last == null ? null : last.etag(), reader);
+        if (answer == null) {
+            return null;
+        }
+        if (answer.notModified()) {
+            return last.body();
+        }
+
+        if (answer.etag() != null) {
+            lastSeen.put(path, answer);
+        } else {
+            lastSeen.remove(path);
+        }
+        return answer.body();
+    }
+
+    // null = żądanie nieudane (zalogowane i policzone w satellite.fetch.errors)
+    private <R> Tagged<R> read(String path, String etag, BodyReader<R> reader) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + path))
+                    .header("X-SERVICE-KEY", SERVICE_API_KEY)
+                    .GET();
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+
+            HttpResponse<InputStream> response =
+                    httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            String tag = response.headers().firstValue("ETag").orElse(null);
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 304 && etag != null) {
+                    notModified.increment();
+                    return new Tagged<>(null, etag, true);
+                }
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("HTTP " + response.statusCode());
+                }
+
+                return new Tagged<>(reader.read(body), tag, false);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.increment();
+            return null;
+        } catch (Exception e) {
+            errors.increment();
+            logger.warn("Cannot fetch {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+}
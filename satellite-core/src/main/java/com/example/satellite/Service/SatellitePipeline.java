@@ -0,0 +1,405 @@
+package com.example.satellite.Service;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.mainservice.Model.Category;
+import com.example.satellite.Config.FetchMode;
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.DTO.UserDTO;
+import com.example.satellite.Model.SatelliteSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+
+// Wspólny runtime satelity: tick = partycje, prepare + lista użytkowników, fetch + score równolegle, wysyłka.
+// Ze zdarzeniami SafeLogin (satellite.events-url) fetch tylko dla użytkowników, których dotknęło zdarzenie
+public class SatellitePipeline<T> {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(SatellitePipeline.class);
+
+    // ilu użytkowników na zezwolenie może być wydanych naprzód
+    private static final int QUEUED_PER_PERMIT = 4;
+
+    private final SatelliteSettings settings;
+    private final ScoringPlugin<T> plugin;
+    private final SafeLoginClient safeLogin;
+
+    private final int permits;
+    private final Semaphore fetchPermits;
+    private final Executor fetchExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // wynik ostatniego fetch per użytkownik i kto od tego czasu coś zrobił
+    private final Map<Integer, T> fetched = new ConcurrentHashMap<>();
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean everyoneChanged = new AtomicBoolean(true);
+    private final ActivityListener events;
+    private int ticksSinceFullRefresh;
+
+    private final Timer tickTimer;
+    private final Timer scoreTimer;
+    private final Counter votes;
+    private final Counter scoreErrors;
+    private final Counter reused;
+
+    private volatile VoteRouter router;
+
+    public SatellitePipeline(
+            SatelliteSettings settings,
+            ScoringPlugin<T> plugin,
+            SafeLoginClient safeLogin,
+            MeterRegistry registry
+    ) {
+        this.settings = settings;
+        this.plugin = plugin;
+        this.safeLogin = safeLogin;
+        this.permits = Math.max(1, settings.fetchPermits());
+        this.fetchPermits = new Semaphore(permits);
+
+        this.fetchExecutor = FetchMode.of(settings.fetchMode()).executor(settings.name() + "-fetch-", permits);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r ->
+                new Thread(r, settings.name() + "-tick"));
+
+        this.events = settings.eventsUrl() == null || settings.eventsUrl().isBlank()
+                ? null
+                : new ActivityListener(
+                        settings.eventsUrl(),
+                        settings.name(),
+                        this::onActivity,
+                        () -> everyoneChanged.set(true)
+                );
+
+        tickTimer = Timer.builder("satellite.tick")
+                .description("One full tick: users, fetch, score, send")
+                .tag("service", settings.name())
+                .register(registry);
+        scoreTimer = Timer.builder("satellite.score")
+                .description("Fetch and score of one user")
+                .tag("service", settings.name())
+                .register(registry);
+        votes = Counter.builder("satellite.votes")
+                .description("Votes handed to the send stage")
+                .tag("service", settings.name())
+                .register(registry);
+        scoreErrors = Counter.builder("satellite.score.errors")
+                .description("Users skipped because the plugin failed")
+                .tag("service", settings.name())
+                .register(registry);
+        reused = Counter.builder("satellite.fetch.reused")
+                .description("Users scored from their last fetch – no event since")
+                .tag("service", settings.name())
+                .register(registry);
+        Gauge.builder("satellite.fetch.in-flight", inFlight, AtomicInteger::get)
+                .description("Users being fetched and scored right now")
+                .tag("service", settings.name())
+                .register(registry);
+        FunctionCounter.builder("satellite.frames.discarded", this, p -> p.router == null ? 0 : p.router.discardedCount())
+                .description("Vote frames dropped from a full resend buffer without an ACK")
+                .tag("service", settings.name())
+                .register(registry);
+    }
+
+    /* =========================================================
+        CONNECT TO MAIN SERVICE
+       ========================================================= */
+    @PostConstruct
+    public void start() {
+        logger.info("{} connecting to MainService...", settings.name());
+
+        router = new VoteRouter(
+                settings.name(),
+                WireFormat.of(settings.wireFormat()),
+                settings.partitions(),
+                settings.partitionsFile()
+        );
+        router.refresh();
+
+        scheduleTick(System.currentTimeMillis() + settings.initialDelayMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+
+        if (events != null) {
+            events.stop();
+        }
+
+        if (fetchExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        } else if (fetchExecutor instanceof SimpleAsyncTaskExecutor threadPerUser) {
+            threadPerUser.close();
+        }
+    }
+
+    private void scheduleTick(long slot) {
+        try {
+            scheduler.schedule(
+                    () -> runTick(slot),
+                    Math.max(0, slot - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS
+            );
+        } catch (RejectedExecutionException e) {
+            // zamknięcie aplikacji
+        }
+    }
+
+    // następny tick dopiero po wysłaniu rundy – sloty, które runda przekroczyła, przepadają
+    private void runTick(long slot) {
+        try {
+            tick();
+        } finally {
+            long interval = settings.tickIntervalMs();
+            long next = slot + interval;
+            long now = System.currentTimeMillis();
+
+            if (next <= now) {
+                long skipped = (now - next) / interval + 1;
+                next += skipped * interval;
+                logger.warn(
+                        "{} round took {} ms, longer than the tick interval – {} tick(s) skipped",
+                        settings.name(), now - slot, skipped
+                );
+            }
+
+            scheduleTick(next);
+        }
+    }
+
+    /* =========================================================
+        MAIN LOOP
+       ========================================================= */
+    private void tick() {
+
+        router.refresh();
+
+        if (events != null) {
+            events.ensureConnected();
+        }
+
+        if (!router.isConnected()) {
+            logger.warn("MainService partitions not connected");
+            return;
+        }
+
+        // epoka rundy z zegara – ta sama u wszystkich satelit
+        long round = System.currentTimeMillis() / settings.roundEpochMs();
+        long started = System.nanoTime();
+
+        try {
+            plugin.prepare(safeLogin);
+
+            String everyone = plugin.broadcast();
+            if (everyone != null) {
+                broadcast(round, everyone, started);
+                return;
+            }
+
+            List<UserDTO> users = safeLogin.users();
+
+            VoteRouter.Round batch = router.newRound(
+                    settings.id(),
+                    round,
+                    settings.weight(),
+                    settings.batchSize()
+            );
+
+            int sent = scoreAll(users, reuseFetched(), (category, userId) -> {
+                logger.debug("{} → user {} → {}", settings.name(), userId, category);
+                batch.add(userId, Category.parseMask(category));
+            });
+
+            batch.finish();
+
+            logger.info(
+                    "{} round {}: {} of {} users voted in {} ms",
+                    settings.name(),
+                    round,
+                    sent,
+                    users.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+            );
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("{} tick error", settings.name(), e);
+        } finally {
+            tickTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /* =========================================================
+        ACTIVITY EVENTS
+       ========================================================= */
+    // Wołane przez ActivityListener dla każdego zdarzenia aktywności
+    public void onActivity(ActivityEventDTO event) {
+        Collection<Integer> affected = plugin.affectedUsers(event);
+
+        if (affected == null) {
+            everyoneChanged.set(true);
+        } else {
+            changed.addAll(affected);
+        }
+    }
+
+    // czy w tym ticku wolno ocenić użytkownika bez zdarzenia z poprzedniego fetch
+    private boolean reuseFetched() {
+        boolean everyone = events == null
+                || !events.isConnected()
+                || everyoneChanged.getAndSet(false)
+                || ++ticksSinceFullRefresh >= settings.fullRefreshTicks();
+
+        if (everyone) {
+            ticksSinceFullRefresh = 0;
+        }
+        return !everyone;
+    }
+
+    // ta sama kategoria dla wszystkich – jedna ramka na partycję, bez listy użytkowników
+    private void broadcast(long round, String category, long started) {
+        router.newRound(
+                settings.id(),
+                round,
+                settings.weight(),
+                settings.batchSize()
+        ).broadcast(Category.parseMask(category));
+
+        votes.increment();
+
+        logger.info(
+                "{} round {}: {} broadcast to all users in {} ms",
+                settings.name(),
+                round,
+                category,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+        );
+    }
+
+    // Fetch + score dla wszystkich użytkowników, wyniki do sink na wątku wołającym; błędy pluginu logowane i pomijane
+    public int scoreAll(List<UserDTO> users, ObjIntConsumer<String> sink) throws InterruptedException {
+        return scoreAll(users, false, sink);
+    }
+
+    // Jak scoreAll; z reuse użytkownik bez zdarzeń liczony z poprzedniego fetch
+    public int scoreAll(List<UserDTO> users, boolean reuse, ObjIntConsumer<String> sink) throws InterruptedException {
+
+        if (!reuse) {
+            // pełne pobranie – przy okazji znikają usunięci użytkownicy
+            fetched.clear();
+        }
+
+        CompletionService<Scored> completion = new ExecutorCompletionService<>(fetchExecutor);
+        int maxQueued = permits * QUEUED_PER_PERMIT;
+
+        Iterator<UserDTO> pending = users.iterator();
+        int submitted = 0;
+        int completed = 0;
+        int sent = 0;
+
+        while (completed < users.size()) {
+
+            while (pending.hasNext() && submitted - completed < maxQueued) {
+                int userId = pending.next().id();
+                submitted++;
+
+                T last = changed.remove(userId) || !reuse ? null : fetched.get(userId);
+                if (last == null) {
+                    completion.submit(() -> score(userId));
+                    continue;
+                }
+
+                completed++;
+                if (rescore(userId, last, sink)) {
+                    sent++;
+                }
+            }
+
+            if (submitted == completed) {
+                continue;
+            }
+
+            Scored result;
+            try {
+                result = completion.take().get();
+            } catch (ExecutionException e) {
+                scoreErrors.increment();
+                logger.warn("{} scoring failed: {}", settings.name(), e.getCause().toString());
+                continue;
+            } finally {
+                completed++;
+            }
+
+            sink.accept(result.category(), result.userId());
+            votes.increment();
+            sent++;
+        }
+
+        return sent;
+    }
+
+    private Scored score(int userId) throws InterruptedException {
+        fetchPermits.acquire();
+        inFlight.incrementAndGet();
+        long started = System.nanoTime();
+
+        try {
+            T data = plugin.fetch(safeLogin, userId);
+            if (data != null) {
+                fetched.put(userId, data);
+            }
+            return new Scored(userId, plugin.score(userId, data));
+        } finally {
+            scoreTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+            fetchPermits.release();
+        }
+    }
+
+    private boolean rescore(int userId, T data, ObjIntConsumer<String> sink) {
+        String category;
+        try {
+            category = plugin.score(userId, data);
+        } catch (RuntimeException e) {
+            scoreErrors.increment();
+            logger.warn("{} scoring failed: {}", settings.name(), e.toString());
+            return false;
+        }
+
+        reused.increment();
+        sink.accept(category, userId);
+        votes.increment();
+        return true;
+    }
+
+    private record Scored(int userId, String category) {}
+}
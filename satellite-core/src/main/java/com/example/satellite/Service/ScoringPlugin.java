@@ -0,0 +1,29 @@
+package com.example.satellite.Service;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+
+import java.util.Collection;
+
+// Algorytm jednej satelity (SPI satellite-core) – resztą zajmuje się SatellitePipeline.
+// fetch i score wołane równolegle z puli, muszą być bezpieczne wątkowo
+public interface ScoringPlugin<T> {
+
+    // Raz na tick, przed użytkownikami – dane wspólne dla całego ticku
+    default void prepare(SafeLoginClient safeLogin) {
+    }
+
+    // Po prepare(); nie-null = głos wszystkich użytkowników w tym ticku, null = każdy osobno
+    default String broadcast() {
+        return null;
+    }
+
+    // Użytkownicy, których fetch mógł zmienić zdarzenie; pusty = nikt, null = wszyscy. Nie może blokować
+    default Collection<Integer> affectedUsers(ActivityEventDTO event) {
+        return null;
+    }
+
+    T fetch(SafeLoginClient safeLogin, int userId);
+
+    // Nazwa kategorii, kilka po przecinku albo NONE/OTHER
+    String score(int userId, T data);
+}
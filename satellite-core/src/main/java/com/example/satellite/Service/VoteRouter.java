@@ -0,0 +1,562 @@
+package com.example.satellite.Service;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.mainservice.DTO.VoteAck;
+import com.example.mainservice.DTO.VoteBatch;
+import com.example.mainservice.DTO.VoteCredit;
+import com.example.satellite.Model.PartitionRing;
+import com.example.satellite.Model.PartitionRing.Partition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Strona satelity: jedna sesja STOMP na partycję PartitionRing, głosy rundy dzielone według właściciela.
+// Pierścień z satellite.partitions albo satellite.partitions-file (przeładowywany w refresh() co tick).
+// Ramki czekają w buforze partycji do ACK i po ponownym połączeniu idą jeszcze raz; wysyłka tylko za kredyt
+public final class VoteRouter {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(VoteRouter.class);
+
+    // pełny bufor: czekamy na ACK; bez ACK (mainservice.ack.mode=none) najstarsze ramki odpadają
+    private static final int RESEND_BUFFER_FRAMES = 256;
+
+    // jak często czekający na kredyt wątek sprawdza, czy sesja jeszcze żyje
+    private static final long CREDIT_POLL_MILLIS = 1_000;
+
+    // MainService odpowiada na SUBSCRIBE od razu; bez odpowiedzi (starsza wersja) sesja idzie bez limitu
+    private static final long FIRST_GRANT_TIMEOUT_MILLIS = 3_000;
+
+    private final String serviceName;
+    private final WireFormat format;
+    private final WebSocketStompClient client;
+
+    private final String partitionsSpec;
+    private final Path partitionsFile;
+    private long partitionsFileModified = Long.MIN_VALUE;
+
+    private volatile PartitionRing ring;
+
+    private final Map<Partition, StompSession> sessions = new ConcurrentHashMap<>();
+    private final Set<Partition> connecting = ConcurrentHashMap.newKeySet();
+
+    // numer ramki: (czas startu << 16) + n – rośnie także po restarcie satelity
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() << 16);
+
+    // ramki wysłane, ale jeszcze niepotwierdzone – monitor: sama kolejka
+    private final Map<Partition, ArrayDeque<VoteBatch>> unacked = new ConcurrentHashMap<>();
+
+    private final Map<Partition, Credits> credits = new ConcurrentHashMap<>();
+
+    // partycje, których bieżąca sesja przysłała już ACK – tylko na nie warto czekać
+    private final Set<Partition> acking = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    // po reconnect – bufor idzie ponownie z wątku ticku, bo czekanie na kredyt blokuje
+    private final Set<Partition> resendDue = ConcurrentHashMap.newKeySet();
+
+    public VoteRouter(
+            String serviceName,
+            WireFormat format,
+            String partitionsSpec,
+            String partitionsFile
+    ) {
+        this.serviceName = serviceName;
+        this.format = format;
+        this.client = format.stompClient();
+        this.partitionsSpec = partitionsSpec;
+        this.partitionsFile = partitionsFile == null || partitionsFile.isBlank()
+                ? null
+                : Path.of(partitionsFile.trim());
+    }
+
+    // Przeładowuje pierścień, jeśli źródło się zmieniło, i łączy brakujące partycje
+    public synchronized void refresh() {
+        PartitionRing loaded = loadRing();
+
+        if (loaded != null && (ring == null || !ring.partitions().equals(loaded.partitions()))) {
+            if (ring != null) {
+                logger.info(
+                        "{} REBALANCE → {} partitions: {}",
+                        serviceName,
+                        loaded.partitions().size(),
+                        loaded.partitions().stream().map(Partition::name).collect(Collectors.joining(", "))
+                );
+            }
+
+            ring = loaded;
+
+            // także partycje bez sesji – Round.send zakłada im bufor i kredyty przed połączeniem
+            Set<Partition> dropped = new HashSet<>(sessions.keySet());
+            dropped.addAll(unacked.keySet());
+            dropped.addAll(credits.keySet());
+            dropped.removeAll(ring.partitions());
+
+            for (Partition partition : dropped) {
+                StompSession removed = sessions.remove(partition);
+                if (removed != null && removed.isConnected()) {
+                    removed.disconnect();
+                }
+                credits.remove(partition);
+                acking.remove(partition);
+                resendDue.remove(partition);
+                ArrayDeque<VoteBatch> pending = unacked.remove(partition);
+                logger.info(
+                        "{} dropped partition {} ({} unacknowledged frames discarded)",
+                        serviceName,
+                        partition.name(),
+                        pending == null ? 0 : pending.size()
+                );
+            }
+        }
+
+        if (ring == null) {
+            return;
+        }
+
+        for (Partition partition : ring.partitions()) {
+            StompSession session = sessions.get(partition);
+            if (session == null || !session.isConnected()) {
+                if (connecting.add(partition)) {
+                    connect(partition);
+                }
+            } else if (resendDue.remove(partition)) {
+                resend(partition, session);
+            }
+        }
+    }
+
+    // Czy każda partycja pierścienia ma żywą sesję
+    public boolean isConnected() {
+        PartitionRing current = ring;
+        if (current == null) {
+            return false;
+        }
+
+        for (Partition partition : current.partitions()) {
+            StompSession session = sessions.get(partition);
+            if (session == null || !session.isConnected()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // roundId – epoka rundy, wspólna dla wszystkich satelit (now / round-epoch-ms)
+    public Round newRound(int serviceId, long roundId, double weight, int batchSize) {
+        return new Round(ring, serviceId, roundId, weight, batchSize);
+    }
+
+    // Ramki czekające na ACK, ze wszystkich partycji
+    public int unackedCount() {
+        int count = 0;
+        for (ArrayDeque<VoteBatch> pending : unacked.values()) {
+            synchronized (pending) {
+                count += pending.size();
+            }
+        }
+        return count;
+    }
+
+    // Ramki wyrzucone z pełnego bufora bez ACK, od startu
+    public long discardedCount() {
+        return discarded.get();
+    }
+
+    // Runda jednej satelity – jeden VoteBatch.Builder na partycję, pierścień stały przez całą rundę
+    public final class Round {
+
+        private final PartitionRing ring;
+        private final int serviceId;
+        private final long roundId;
+        private final double weight;
+        private final VoteBatch.Builder[] batches;
+
+        // per partycja: ramki bez wysyłki i wyrzucone z pełnego bufora – jeden WARN po rundzie zamiast jednego na ramkę
+        private final int[] keptFrames;
+        private final int[] keptVotes;
+        private final int[] discardedFrames;
+
+        private Round(PartitionRing ring, int serviceId, long roundId, double weight, int batchSize) {
+            this.ring = ring;
+            this.serviceId = serviceId;
+            this.roundId = roundId;
+            this.weight = weight;
+            this.batches = new VoteBatch.Builder[ring.partitions().size()];
+            for (int p = 0; p < batches.length; p++) {
+                batches[p] = new VoteBatch.Builder(serviceId, roundId, weight, batchSize);
+            }
+            this.keptFrames = new int[batches.length];
+            this.keptVotes = new int[batches.length];
+            this.discardedFrames = new int[batches.length];
+        }
+
+        public void add(int userId, int categoryMask) {
+            int owner = ring.ownerIndex(userId);
+            VoteBatch.Builder batch = batches[owner];
+
+            batch.add(userId, categoryMask);
+
+            if (batch.isFull()) {
+                send(owner, batch.drain(sequence.incrementAndGet()));
+            }
+        }
+
+        // Jeden głos dla wszystkich użytkowników – jedna ramka broadcast na partycję
+        public void broadcast(int categoryMask) {
+            for (int p = 0; p < batches.length; p++) {
+                send(p, VoteBatch.broadcast(serviceId, roundId, sequence.incrementAndGet(), weight, categoryMask));
+            }
+            report();
+        }
+
+        // Wysyła resztę z buforów wszystkich partycji
+        public void finish() {
+            for (int p = 0; p < batches.length; p++) {
+                if (!batches[p].isEmpty()) {
+                    send(p, batches[p].drain(sequence.incrementAndGet()));
+                }
+            }
+            report();
+        }
+
+        private void report() {
+            for (int p = 0; p < batches.length; p++) {
+                if (keptFrames[p] == 0 && discardedFrames[p] == 0) {
+                    continue;
+                }
+
+                logger.warn(
+                        "{} → {}: round {} – {} batches ({} votes) kept for resend (not connected), "
+                                + "{} unacknowledged batches discarded (buffer full)",
+                        serviceName,
+                        ring.partitions().get(p).name(),
+                        roundId,
+                        keptFrames[p],
+                        keptVotes[p],
+                        discardedFrames[p]
+                );
+
+                keptFrames[p] = 0;
+                keptVotes[p] = 0;
+                discardedFrames[p] = 0;
+            }
+        }
+
+        private void send(int owner, VoteBatch batch) {
+            Partition partition = ring.partitions().get(owner);
+            ArrayDeque<VoteBatch> pending = unacked.computeIfAbsent(partition, p -> new ArrayDeque<>());
+
+            synchronized (pending) {
+                if (pending.size() >= RESEND_BUFFER_FRAMES) {
+                    discardedFrames[owner] += makeRoom(partition, pending);
+                }
+                pending.addLast(batch);
+            }
+
+            StompSession session = sessions.get(partition);
+
+            // świeża sesja – najpierw zaległe ramki, ta jest na końcu bufora
+            if (session != null && session.isConnected() && resendDue.remove(partition)) {
+                resend(partition, session);
+                return;
+            }
+
+            if (session == null || !session.isConnected() || !awaitCredit(partition)) {
+                keptFrames[owner]++;
+                keptVotes[owner] += batch.size();
+                return;
+            }
+
+            logger.info(
+                    "{} → {}: sending batch #{} of {} votes (round {})",
+                    serviceName,
+                    partition.name(),
+                    batch.seq(),
+                    batch.size(),
+                    batch.roundId()
+            );
+
+            session.send("/app/vote-batch", batch);
+        }
+    }
+
+    // false = sesja padła w trakcie czekania, ramka zostaje w buforze do ponownej wysyłki
+    private boolean awaitCredit(Partition partition) {
+        Credits available = credits.computeIfAbsent(partition, p -> new Credits());
+        long started = System.currentTimeMillis();
+
+        try {
+            while (!available.tryAcquire(CREDIT_POLL_MILLIS)) {
+                StompSession session = sessions.get(partition);
+                if (session == null || !session.isConnected()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        long waited = System.currentTimeMillis() - started;
+        if (waited >= CREDIT_POLL_MILLIS) {
+            logger.info("{} → {}: paused {} ms waiting for credits", serviceName, partition.name(), waited);
+        }
+        return true;
+    }
+
+    // wołane z monitorem bufora; czeka na ACK, dopóki sesja żyje i potwierdza ramki; zwraca liczbę wyrzuconych
+    private int makeRoom(Partition partition, ArrayDeque<VoteBatch> pending) {
+        long started = System.currentTimeMillis();
+
+        try {
+            while (pending.size() >= RESEND_BUFFER_FRAMES && acking.contains(partition)) {
+                StompSession session = sessions.get(partition);
+                if (session == null || !session.isConnected()) {
+                    break;
+                }
+                pending.wait(CREDIT_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long waited = System.currentTimeMillis() - started;
+        if (waited >= CREDIT_POLL_MILLIS) {
+            logger.info("{} → {}: paused {} ms waiting for ACKs", serviceName, partition.name(), waited);
+        }
+
+        int dropped = 0;
+        while (pending.size() >= RESEND_BUFFER_FRAMES) {
+            pending.pollFirst();
+            dropped++;
+        }
+        discarded.addAndGet(dropped);
+        return dropped;
+    }
+
+    // ACK obejmuje wszystko do numeru seq włącznie
+    private void acknowledged(Partition partition, long seq) {
+        acking.add(partition);
+
+        ArrayDeque<VoteBatch> pending = unacked.get(partition);
+        if (pending == null) {
+            return;
+        }
+
+        synchronized (pending) {
+            while (!pending.isEmpty() && pending.peekFirst().seq() <= seq) {
+                pending.pollFirst();
+            }
+            pending.notifyAll();
+        }
+    }
+
+    // po kolei i za kredytem, MainService odrzuca to, co już przetworzył
+    private void resend(Partition partition, StompSession session) {
+        ArrayDeque<VoteBatch> pending = unacked.get(partition);
+        if (pending == null) {
+            return;
+        }
+
+        List<VoteBatch> frames;
+        synchronized (pending) {
+            frames = new ArrayList<>(pending);
+        }
+
+        if (frames.isEmpty()) {
+            return;
+        }
+
+        logger.info("{} → {}: resending {} unacknowledged batches", serviceName, partition.name(), frames.size());
+
+        for (VoteBatch frame : frames) {
+            if (!session.isConnected() || !awaitCredit(partition)) {
+                // reszta zostaje w buforze – następna sesja wyśle ją od nowa
+                return;
+            }
+            session.send("/app/vote-batch", frame);
+        }
+    }
+
+    /* ============================================================
+       ====================== CONNECTION ==========================
+       ============================================================ */
+
+    private void connect(Partition partition) {
+        logger.info("{} connecting to partition {} ({})", serviceName, partition.name(), partition.url());
+
+        client.connectAsync(
+                format.endpointUrl(partition.url()),
+                new StompSessionHandlerAdapter() {
+
+                    @Override
+                    public void afterConnected(StompSession session, StompHeaders headers) {
+                        logger.info("{} CONNECTED to {}", serviceName, partition.name());
+
+                        // nowa sesja – stare kredyty przepadły, 0 do przydziału z odpowiedzi na SUBSCRIBE
+                        credits.computeIfAbsent(partition, p -> new Credits()).reset();
+                        acking.remove(partition);
+
+                        StompHeaders creditHeaders = new StompHeaders();
+                        creditHeaders.setDestination("/user/queue/credits");
+                        creditHeaders.setContentType(format.mimeType());
+
+                        session.subscribe(creditHeaders, new StompFrameHandler() {
+
+                            @Override
+                            public Type getPayloadType(StompHeaders headers) {
+                                return VoteCredit.class;
+                            }
+
+                            @Override
+                            public void handleFrame(StompHeaders headers, Object payload) {
+                                VoteCredit credit = (VoteCredit) payload;
+                                credits.computeIfAbsent(partition, p -> new Credits()).grant(credit.credits());
+                            }
+                        });
+
+                        // ACK tylko dla tej sesji – tryb ustawia MainService (mainservice.ack.mode)
+                        session.subscribe("/user/queue/ack", new StompFrameHandler() {
+
+                            @Override
+                            public Type getPayloadType(StompHeaders headers) {
+                                return VoteAck.class;
+                            }
+
+                            @Override
+                            public void handleFrame(StompHeaders headers, Object payload) {
+                                VoteAck ack = (VoteAck) payload;
+                                logger.debug(
+                                        "{} ← {} ACK round {} #{} ({} votes)",
+                                        serviceName,
+                                        partition.name(),
+                                        ack.roundId(),
+                                        ack.seq(),
+                                        ack.votes()
+                                );
+                                acknowledged(partition, ack.seq());
+                            }
+                        });
+
+                        // powtórkę wysyła wątek ticku – tutaj czekanie na kredyt zablokowałoby odbiór przydziałów
+                        resendDue.add(partition);
+                        sessions.put(partition, session);
+                    }
+                }
+        ).whenComplete((session, error) -> {
+            connecting.remove(partition);
+            if (error != null) {
+                logger.warn("{} cannot connect to partition {}: {}", serviceName, partition.name(), error.getMessage());
+            }
+        });
+    }
+
+    // Kredyty jednej sesji; do pierwszego przydziału 0, VoteCredit.UNLIMITED = MainService bez sterowania przepływem
+    private static final class Credits {
+
+        private boolean granted;
+        private boolean limited;
+        private int available;
+        private long firstGrantDeadline;
+
+        Credits() {
+            reset();
+        }
+
+        synchronized void grant(int count) {
+            granted = true;
+            limited = count != VoteCredit.UNLIMITED;
+            if (limited) {
+                available += count;
+            }
+            notifyAll();
+        }
+
+        synchronized void reset() {
+            granted = false;
+            limited = true;
+            available = 0;
+            firstGrantDeadline = System.currentTimeMillis() + FIRST_GRANT_TIMEOUT_MILLIS;
+            notifyAll();
+        }
+
+        synchronized boolean tryAcquire(long timeoutMillis) throws InterruptedException {
+            if (!granted) {
+                long left = firstGrantDeadline - System.currentTimeMillis();
+                if (left > 0) {
+                    wait(Math.min(timeoutMillis, left));
+                    return granted && tryTake();
+                }
+
+                logger.warn("No credit grant {} ms after connect → session not flow-controlled", FIRST_GRANT_TIMEOUT_MILLIS);
+                granted = true;
+                limited = false;
+            }
+
+            if (limited && available <= 0) {
+                wait(timeoutMillis);
+            }
+
+            return tryTake();
+        }
+
+        private boolean tryTake() {
+            if (!limited) {
+                return true;
+            }
+            if (available <= 0) {
+                return false;
+            }
+
+            available--;
+            return true;
+        }
+    }
+
+    // plik wygrywa z właściwością; null = bez zmian (plik nieczytelny albo niezmieniony)
+    private PartitionRing loadRing() {
+        try {
+            if (partitionsFile != null && Files.exists(partitionsFile)) {
+                long modified = Files.getLastModifiedTime(partitionsFile).toMillis();
+                if (modified == partitionsFileModified && ring != null) {
+                    return null;
+                }
+
+                List<String> lines = Files.readAllLines(partitionsFile);
+                PartitionRing loaded = PartitionRing.parse(
+                        lines.stream()
+                                .map(String::trim)
+                                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                                .collect(Collectors.joining(","))
+                );
+                partitionsFileModified = modified;
+                return loaded;
+            }
+
+            return ring == null ? PartitionRing.parse(partitionsSpec) : null;
+
+        } catch (Exception e) {
+            logger.warn("{} cannot load partition ring: {}", serviceName, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.satellite.TestModel;
+
+import com.example.mainservice.Model.Category;
+import com.example.satellite.Model.CategoryCounts;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryCountsTest {
+
+    private static CategoryCounts of(String... categories) {
+        CategoryCounts counts = new CategoryCounts();
+        for (String category : categories) {
+            counts.add(category);
+        }
+        return counts;
+    }
+
+    @Test
+    void mostCommon_ShouldPickMostFrequentAndIgnoreNulls() {
+        assertEquals("MUSIC", of("SPORT", "MUSIC", null, "MUSIC", null, null).mostCommon("NONE"));
+    }
+
+    @Test
+    void leastCommon_ShouldPickRarest() {
+        assertEquals("SPORT", of("MUSIC", "SPORT", "MUSIC", "GAMING", "GAMING").leastCommon("OTHER"));
+    }
+
+    @Test
+    void add_WithCount_ShouldSumAcrossOwners() {
+        CategoryCounts counts = new CategoryCounts();
+        counts.add("MUSIC", 3);
+        counts.add("SPORT", 2);
+        counts.add("SPORT", 2);
+
+        assertEquals(4, counts.get(Category.SPORT));
+        assertEquals("SPORT", counts.mostCommon("NONE"));
+    }
+
+    @Test
+    void emptyInput_ShouldReturnFallback() {
+        assertTrue(of(null, "1042", "music").isEmpty());
+        assertEquals("NONE", of((String) null).mostCommon("NONE"));
+        assertEquals("OTHER", of().leastCommon("OTHER"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.satellite.TestModel;
+
+import com.example.satellite.Model.PartitionRing;
+import com.example.satellite.Model.PartitionRing.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionRingTest {
+
+    private static final int USERS = 100_000;
+
+    @Test
+    void parse_ShouldReadNamedAndBareEntries() {
+        PartitionRing ring = PartitionRing.parse(
+                " p0=ws://localhost:8081/main-ws , ws://localhost:8091/main-ws ,"
+        );
+
+        assertEquals(
+                List.of(
+                        new Partition("p0", "ws://localhost:8081/main-ws"),
+                        new Partition("ws://localhost:8091/main-ws", "ws://localhost:8091/main-ws")
+                ),
+                ring.partitions()
+        );
+    }
+
+    @Test
+    void parse_ShouldRejectEmptyAndDuplicateRings() {
+        assertThrows(IllegalArgumentException.class, () -> PartitionRing.parse(" , "));
+        assertThrows(IllegalArgumentException.class, () -> PartitionRing.parse("p0=a,p0=b"));
+    }
+
+    @Test
+    void ownerOf_ShouldSpreadUsersEvenly() {
+        PartitionRing ring = PartitionRing.parse("p0=a,p1=b,p2=c,p3=d");
+
+        int[] owned = new int[4];
+        for (int userId = 0; userId < USERS; userId++) {
+            owned[ring.ownerIndex(userId)]++;
+        }
+
+        for (int count : owned) {
+            assertTrue(Math.abs(count - USERS / 4) < USERS / 4 * 0.2, "owned " + count);
+        }
+    }
+
+    @Test
+    void addingPartition_ShouldMoveOnlyItsShareOfUsers() {
+        PartitionRing before = PartitionRing.parse("p0=a,p1=b,p2=c");
+        PartitionRing after = PartitionRing.parse("p0=a,p1=b,p2=c,p3=d");
+
+        int moved = 0;
+        for (int userId = 0; userId < USERS; userId++) {
+            String from = before.ownerOf(userId).name();
+            String to = after.ownerOf(userId).name();
+
+            if (!from.equals(to)) {
+                assertEquals("p3", to);
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - USERS / 4) < USERS / 4 * 0.2, "moved " + moved);
+    }
+
+    @Test
+    void changingUrl_ShouldKeepOwnership() {
+        PartitionRing before = PartitionRing.parse("p0=ws://host-a/main-ws,p1=ws://host-b/main-ws");
+        PartitionRing after = PartitionRing.parse("p0=ws://host-a/main-ws,p1=ws://host-c/main-ws");
+
+        for (int userId = 0; userId < 10_000; userId++) {
+            assertEquals(before.ownerIndex(userId), after.ownerIndex(userId));
+        }
+    }
+}
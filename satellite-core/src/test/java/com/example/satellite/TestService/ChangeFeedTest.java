@@ -0,0 +1,106 @@
+package com.example.satellite.TestService;
+
+import com.example.mainservice.Model.Category;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.ChangeFeed;
+import com.example.satellite.Service.SafeLoginClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Feed ?since= na serwerze z JDK – odpowiedź zależy od kursora w zapytaniu.
+class ChangeFeedTest {
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private SafeLoginClient client;
+    private Map<String, String> responses;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        server.createContext("/feed/1", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+
+            String body = responses.get(query);
+            byte[] bytes = (body == null ? "boom" : body).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(body == null ? 500 : 200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+
+        server.start();
+        client = new SafeLoginClient(
+                "http://localhost:" + server.getAddress().getPort(),
+                "TestService",
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void read_ShouldStartFromWholeListAndThenApplyOnlyChanges() {
+        responses = Map.of(
+                "since=0", """
+                        {"cursor": 7, "changes": [
+                          {"refId": 1, "category": "MUSIC", "delta": 1},
+                          {"refId": 2, "category": "MUSIC", "delta": 1},
+                          {"refId": 3, "category": "SPORT", "delta": 1}
+                        ]}
+                        """,
+                "since=7", """
+                        {"cursor": 9, "changes": [
+                          {"refId": 1, "category": "MUSIC", "delta": -1},
+                          {"refId": 2, "category": "MUSIC", "delta": -1},
+                          {"refId": 4, "category": "GAMING", "delta": 1}
+                        ]}
+                        """
+        );
+        ChangeFeed<CategoryCounts> feed = ChangeFeed.categories(userId -> "/feed/" + userId);
+
+        assertEquals("MUSIC", feed.read(client, 1).mostCommon("NONE"));
+
+        CategoryCounts counts = feed.read(client, 1);
+        assertEquals(0, counts.get(Category.MUSIC));
+        assertEquals(1, counts.get(Category.SPORT));
+        assertEquals(1, counts.get(Category.GAMING));
+        assertEquals(List.of("since=0", "since=7"), queries);
+    }
+
+    @Test
+    void read_WhenRequestFails_ShouldKeepLastStateAndCursor() {
+        responses = Map.of(
+                "since=0", """
+                        {"cursor": 3, "changes": [{"refId": 5, "delta": 1}, {"refId": 6, "delta": 1}]}
+                        """
+        );
+        ChangeFeed<Set<Integer>> feed = ChangeFeed.ids(userId -> "/feed/" + userId);
+
+        assertEquals(Set.of(5, 6), feed.read(client, 1));
+        // since=3 nie ma odpowiedzi – 500
+        assertEquals(Set.of(5, 6), feed.read(client, 1));
+        assertEquals(Set.of(5, 6), feed.read(client, 1));
+        assertEquals(List.of("since=0", "since=3", "since=3"), queries);
+    }
+}
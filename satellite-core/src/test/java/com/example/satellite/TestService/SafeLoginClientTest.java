@@ -0,0 +1,163 @@
+package com.example.satellite.TestService;
+
+import com.example.mainservice.Model.Category;
+import com.example.satellite.DTO.UserDTO;
+import com.example.satellite.Model.CategoryCounts;
+import com.example.satellite.Service.SafeLoginClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Mały serwer HTTP z JDK zamiast SafeLogin – odpowiedzi podane wprost.
+class SafeLoginClientTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AtomicInteger usersServed = new AtomicInteger();
+
+    // liczba id w każdym zapytaniu o liczniki kategorii
+    private final List<Integer> idsPerRequest = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private SafeLoginClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        respond("/api/history/get/1", 200, """
+                [
+                  {"id": 1, "title": "a", "category": "MUSIC", "video": {"category": "SPORT"}},
+                  {"id": 2, "tags": ["category", "SPORT"], "category": "MUSIC"},
+                  {"category": null, "watchedAt": "2024-01-01T10:00:00"},
+                  {"category": "SPORT"}
+                ]
+                """);
+        respond("/api/history/get/2", 500, "boom");
+        respond("/api/history/get/3", 200, "[{\"category\": \"MUSIC\"}, {\"category\": ");
+
+        // ETag jak w SafeLogin – 304, gdy klient odeśle aktualny
+        server.createContext("/api/users/all", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+
+            usersServed.incrementAndGet();
+            byte[] bytes = "[{\"id\": 1, \"nick\": \"a\"}]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+
+        // jeden film MUSIC na każdego właściciela z ?ids=
+        server.createContext("/videosByOwners/categories", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String[] ids = query.substring("ids=".length()).split(",");
+            idsPerRequest.add(ids.length);
+
+            String body = Arrays.stream(ids)
+                    .map(id -> "{\"ownerId\": " + id + ", \"category\": \"MUSIC\", \"videos\": 1}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+
+        server.start();
+        client = new SafeLoginClient(
+                "http://localhost:" + server.getAddress().getPort(),
+                "TestService",
+                registry
+        );
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void respond(String path, int status, String body) {
+        server.createContext(path, exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    void countCategories_ShouldCountOnlyTopLevelCategoryFields() {
+        CategoryCounts counts = client.countCategories("/api/history/get/1");
+
+        assertEquals(2, counts.get(Category.MUSIC));
+        assertEquals(1, counts.get(Category.SPORT));
+        assertEquals(0, registry.get("satellite.fetch.errors").counter().count());
+    }
+
+    @Test
+    void countCategories_WhenRequestFailsOrBodyIsCut_ShouldCountNothing() {
+        assertTrue(client.countCategories("/api/history/get/2").isEmpty());
+        assertTrue(client.countCategories("/api/history/get/3").isEmpty());
+        assertEquals(2, registry.get("satellite.fetch.errors").counter().count());
+    }
+
+    @Test
+    void users_WhenNotModified_ShouldReuseLastParse() {
+        List<UserDTO> first = client.users();
+        List<UserDTO> second = client.users();
+
+        assertEquals(List.of(new UserDTO(1, "a")), first);
+        assertSame(first, second);
+        assertEquals(1, usersServed.get());
+        assertEquals(1, registry.get("satellite.fetch.not-modified").counter().count());
+    }
+
+    private static List<Integer> ownerIds(int count) {
+        return IntStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    @Test
+    void categoryCountsOf_AtChunkLimit_ShouldSendOneRequest() {
+        CategoryCounts counts = client.categoryCountsOf(ownerIds(500));
+
+        assertEquals(List.of(500), idsPerRequest);
+        assertEquals(500, counts.get(Category.MUSIC));
+    }
+
+    @Test
+    void categoryCountsOf_OverChunkLimit_ShouldSplitAndSumAllChunks() {
+        CategoryCounts counts = client.categoryCountsOf(ownerIds(1001));
+
+        assertEquals(List.of(500, 500, 1), idsPerRequest);
+        assertEquals(1001, counts.get(Category.MUSIC));
+    }
+
+    @Test
+    void categoryCountsOf_WithoutOwners_ShouldNotQuery() {
+        assertTrue(client.categoryCountsOf(List.of()).isEmpty());
+        assertTrue(idsPerRequest.isEmpty());
+    }
+}
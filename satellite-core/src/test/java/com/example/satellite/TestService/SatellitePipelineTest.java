@@ -0,0 +1,181 @@
+package com.example.satellite.TestService;
+
+import com.example.satellite.DTO.ActivityEventDTO;
+import com.example.satellite.DTO.UserDTO;
+import com.example.satellite.Model.SatelliteSettings;
+import com.example.satellite.Service.SafeLoginClient;
+import com.example.satellite.Service.SatellitePipeline;
+import com.example.satellite.Service.ScoringPlugin;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SatellitePipelineTest {
+
+    private static final int PERMITS = 4;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final SatelliteSettings settings = new SatelliteSettings(
+            "TestService", 1, 1.0, "json", 500, 60_000,
+            "main=ws://localhost:1/main-ws", "", "http://localhost:1",
+            "virtual", PERMITS, 0, 60_000, "", 10
+    );
+
+    private final SafeLoginClient safeLogin = new SafeLoginClient("http://localhost:1", "TestService", registry);
+
+    private SatellitePipeline<Integer> pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    private static List<UserDTO> users(int count) {
+        List<UserDTO> users = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            users.add(new UserDTO(i, "user" + i));
+        }
+        return users;
+    }
+
+    @Test
+    void scoreAll_ShouldScoreEveryUserWithBoundedParallelism() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        pipeline = new SatellitePipeline<>(settings, new ScoringPlugin<>() {
+            @Override
+            public Integer fetch(SafeLoginClient safeLogin, int userId) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return userId;
+            }
+
+            @Override
+            public String score(int userId, Integer data) {
+                return data % 2 == 0 ? "MUSIC" : "SPORT";
+            }
+        }, safeLogin, registry);
+
+        Map<Integer, String> votes = new HashMap<>();
+        int sent = pipeline.scoreAll(users(100), (category, userId) -> votes.put(userId, category));
+
+        assertEquals(100, sent);
+        assertEquals(100, votes.size());
+        assertEquals("MUSIC", votes.get(42));
+        assertEquals("SPORT", votes.get(43));
+        assertTrue(maxRunning.get() <= PERMITS, "max concurrent fetches " + maxRunning.get());
+        assertEquals(100, registry.get("satellite.votes").counter().count());
+    }
+
+    @Test
+    void scoreAll_InPoolMode_ShouldStayWithinPermits() throws Exception {
+        SatelliteSettings poolSettings = new SatelliteSettings(
+                "TestService", 1, 1.0, "json", 500, 60_000,
+                "main=ws://localhost:1/main-ws", "", "http://localhost:1",
+                "pool", 2, 0, 60_000, "", 10
+        );
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        pipeline = new SatellitePipeline<>(poolSettings, new ScoringPlugin<>() {
+            @Override
+            public Integer fetch(SafeLoginClient safeLogin, int userId) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                running.decrementAndGet();
+                return userId;
+            }
+
+            @Override
+            public String score(int userId, Integer data) {
+                return "NEWS";
+            }
+        }, safeLogin, registry);
+
+        int sent = pipeline.scoreAll(users(50), (category, userId) -> {});
+
+        assertEquals(50, sent);
+        assertTrue(maxRunning.get() <= 2, "max concurrent fetches " + maxRunning.get());
+    }
+
+    @Test
+    void scoreAll_WhenPluginFails_ShouldSkipOnlyThatUser() throws Exception {
+        pipeline = new SatellitePipeline<>(settings, new ScoringPlugin<>() {
+            @Override
+            public Integer fetch(SafeLoginClient safeLogin, int userId) {
+                if (userId == 3) {
+                    throw new IllegalStateException("broken user");
+                }
+                return userId;
+            }
+
+            @Override
+            public String score(int userId, Integer data) {
+                return "GAMING";
+            }
+        }, safeLogin, registry);
+
+        Map<Integer, String> votes = new HashMap<>();
+        int sent = pipeline.scoreAll(users(5), (category, userId) -> votes.put(userId, category));
+
+        assertEquals(4, sent);
+        assertFalse(votes.containsKey(3));
+        assertEquals(1, registry.get("satellite.score.errors").counter().count());
+    }
+
+    @Test
+    void scoreAll_WithReuse_ShouldFetchOnlyUsersTouchedByEvents() throws Exception {
+        List<Integer> fetches = new CopyOnWriteArrayList<>();
+
+        pipeline = new SatellitePipeline<>(settings, new ScoringPlugin<>() {
+            @Override
+            public Collection<Integer> affectedUsers(ActivityEventDTO event) {
+                return "WATCHED".equals(event.type()) ? List.of(event.userId()) : List.of();
+            }
+
+            @Override
+            public Integer fetch(SafeLoginClient safeLogin, int userId) {
+                fetches.add(userId);
+                return userId * 10;
+            }
+
+            @Override
+            public String score(int userId, Integer data) {
+                return data == 20 ? "MUSIC" : "SPORT";
+            }
+        }, safeLogin, registry);
+
+        pipeline.scoreAll(users(5), false, (category, userId) -> {});
+        assertEquals(5, fetches.size());
+
+        pipeline.onActivity(new ActivityEventDTO("WATCHED", 2, 7, "MUSIC"));
+        pipeline.onActivity(new ActivityEventDTO("LIKED", 4, 7, "MUSIC"));
+        fetches.clear();
+
+        Map<Integer, String> votes = new HashMap<>();
+        int sent = pipeline.scoreAll(users(5), true, (category, userId) -> votes.put(userId, category));
+
+        assertEquals(List.of(2), fetches);
+        assertEquals(5, sent);
+        assertEquals("MUSIC", votes.get(2));
+        assertEquals("SPORT", votes.get(5));
+        assertEquals(4, registry.get("satellite.fetch.reused").counter().count());
+    }
+}
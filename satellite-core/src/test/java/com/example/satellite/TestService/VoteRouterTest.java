@@ -0,0 +1,152 @@
+package com.example.satellite.TestService;
+
+import com.example.mainservice.Config.WireFormat;
+import com.example.mainservice.MainServiceApplication;
+import com.example.mainservice.Model.Category;
+import com.example.mainservice.Service.RoundStore;
+import com.example.satellite.Model.PartitionRing;
+import com.example.satellite.Service.VoteRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dwie partycje MainService w jednym JVM – satelita wysyła każdy głos tylko do właściciela
+class VoteRouterTest {
+
+    private static final int USERS = 1_000;
+
+    private final List<ConfigurableApplicationContext> partitions = new ArrayList<>();
+
+    @AfterEach
+    void stopPartitions() {
+        partitions.forEach(ConfigurableApplicationContext::close);
+    }
+
+    private String startPartition(String name) {
+        // argumenty mają pierwszeństwo przed application.properties (port 8081)
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServiceApplication.class)
+                .run("--server.port=0", "--spring.application.name=MainService-" + name);
+        partitions.add(context);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return name + "=ws://localhost:" + port + "/main-ws";
+    }
+
+    @Test
+    void round_ShouldReachOnlyTheOwningPartition() throws Exception {
+        String ringSpec = startPartition("p0") + "," + startPartition("p1");
+        PartitionRing ring = PartitionRing.parse(ringSpec);
+
+        VoteRouter router = new VoteRouter("Service3", WireFormat.CBOR, ringSpec, null);
+        router.refresh();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!router.isConnected() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(router.isConnected());
+
+        VoteRouter.Round round = router.newRound(3, 1, 1.0, 100);
+        for (int userId = 0; userId < USERS; userId++) {
+            round.add(userId, 1 << Category.SPORT.ordinal());
+        }
+        round.finish();
+
+        RoundStore p0 = partitions.get(0).getBean(RoundStore.class);
+        RoundStore p1 = partitions.get(1).getBean(RoundStore.class);
+
+        deadline = System.currentTimeMillis() + 10_000;
+        while (p0.size() + p1.size() < USERS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(USERS, p0.size() + p1.size());
+        assertTrue(p0.size() > 0 && p1.size() > 0);
+
+        for (int userId = 0; userId < USERS; userId++) {
+            RoundStore owner = ring.ownerIndex(userId) == 0 ? p0 : p1;
+            RoundStore other = owner == p0 ? p1 : p0;
+
+            assertEquals(0b100, owner.reportedMask(userId, 1));
+            assertEquals(0, other.reportedMask(userId, 1));
+        }
+
+        // broadcast idzie do obu partycji – każda dokłada go do swoich rund
+        router.newRound(5, 1, 2.0, 100).broadcast(1 << Category.SPORT.ordinal());
+
+        deadline = System.currentTimeMillis() + 10_000;
+        while (!allReported(ring, p0, p1, 0b10100) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(allReported(ring, p0, p1, 0b10100));
+
+        // każda paczka potwierdzona – bufor do ponownej wysyłki pusty
+        deadline = System.currentTimeMillis() + 10_000;
+        while (router.unackedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, router.unackedCount());
+    }
+
+    @Test
+    void refresh_ShouldDropBufferOfPartitionThatNeverConnected() throws Exception {
+        Path ringFile = Files.createTempFile("partitions", ".txt");
+        try {
+            // port 1 – nikt nie słucha, partycja nigdy się nie połączy
+            Files.writeString(ringFile, "dead=ws://localhost:1/main-ws\n");
+
+            VoteRouter router = new VoteRouter("Service3", WireFormat.JSON, "", ringFile.toString());
+            router.refresh();
+
+            VoteRouter.Round round = router.newRound(3, 1, 1.0, 10);
+            for (int userId = 0; userId < 25; userId++) {
+                round.add(userId, 1 << Category.SPORT.ordinal());
+            }
+            round.finish();
+            assertEquals(3, router.unackedCount());
+
+            Files.writeString(ringFile, "other=ws://localhost:1/main-ws\n");
+            Files.setLastModifiedTime(ringFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+            router.refresh();
+
+            assertEquals(0, router.unackedCount());
+        } finally {
+            Files.deleteIfExists(ringFile);
+        }
+    }
+
+    @Test
+    void round_WhenPartitionNeverAcks_ShouldCountDiscardedFrames() {
+        VoteRouter router = new VoteRouter("Service3", WireFormat.JSON, "dead=ws://localhost:1/main-ws", null);
+        router.refresh();
+
+        VoteRouter.Round round = router.newRound(3, 1, 1.0, 1);
+        for (int userId = 0; userId < 260; userId++) {
+            round.add(userId, 1 << Category.SPORT.ordinal());
+        }
+
+        assertEquals(256, router.unackedCount());
+        assertEquals(4, router.discardedCount());
+    }
+
+    private static boolean allReported(PartitionRing ring, RoundStore p0, RoundStore p1, int mask) {
+        for (int userId = 0; userId < USERS; userId++) {
+            RoundStore owner = ring.ownerIndex(userId) == 0 ? p0 : p1;
+            if (owner.reportedMask(userId, 1) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+}